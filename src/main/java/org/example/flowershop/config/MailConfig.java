@@ -2,6 +2,7 @@ package org.example.flowershop.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.thymeleaf.spring6.SpringTemplateEngine;
@@ -16,20 +17,21 @@ public class MailConfig {
     private static final Logger log = LoggerFactory.getLogger(MailConfig.class);
 
 
+    // Caching keeps parsed templates in memory; turn it off locally to pick up template edits without a restart
     @Bean
-    public SpringTemplateEngine emailTemplateEngine() {
-        log.info("Setting up email template engine");
+    public SpringTemplateEngine emailTemplateEngine(@Value("${mail.templates.cacheable:true}") boolean cacheable) {
+        log.info("Setting up email template engine, cacheable={}", cacheable);
 
         final SpringTemplateEngine templateEngine = new SpringTemplateEngine();
-        templateEngine.addTemplateResolver(textTemplateResolver());
-        templateEngine.addTemplateResolver(htmlTemplateResolver());
-        templateEngine.addTemplateResolver(stringTemplateResolver());
+        templateEngine.addTemplateResolver(textTemplateResolver(cacheable));
+        templateEngine.addTemplateResolver(htmlTemplateResolver(cacheable));
+        templateEngine.addTemplateResolver(stringTemplateResolver(cacheable));
 
         log.info("Email template engine setup complete");
         return templateEngine;
     }
 
-    private ITemplateResolver textTemplateResolver() {
+    private ITemplateResolver textTemplateResolver(boolean cacheable) {
         log.info("Setting up text template resolver");
 
         final ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
@@ -39,13 +41,13 @@ public class MailConfig {
         templateResolver.setSuffix(".txt");
         templateResolver.setTemplateMode(TemplateMode.TEXT);
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(cacheable);
 
         log.info("Text template resolver setup complete");
         return templateResolver;
     }
 
-    private ITemplateResolver htmlTemplateResolver() {
+    private ITemplateResolver htmlTemplateResolver(boolean cacheable) {
         log.info("Setting up HTML template resolver");
 
         final ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
@@ -55,19 +57,19 @@ public class MailConfig {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(cacheable);
 
         log.info("HTML template resolver setup complete");
         return templateResolver;
     }
 
-    private ITemplateResolver stringTemplateResolver() {
+    private ITemplateResolver stringTemplateResolver(boolean cacheable) {
         log.info("Setting up string template resolver");
 
         final ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
         templateResolver.setOrder(3);
         templateResolver.setTemplateMode("HTML5");
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(cacheable);
 
         log.info("String template resolver setup complete");
         return templateResolver;
@@ -0,0 +1,16 @@
+package org.example.flowershop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CategoryFacetDto {
+    private long id;
+    private String name;
+    private long count;
+}
@@ -0,0 +1,19 @@
+package org.example.flowershop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FacetedProductsDto {
+    private List<ProductDto> content;
+    private long totalElements;
+    private List<CategoryFacetDto> categories;
+    private List<PriceBucketDto> priceBuckets;
+}
@@ -0,0 +1,17 @@
+package org.example.flowershop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PriceBucketDto {
+    private double from;
+    // Null for the open-ended top bucket
+    private Double to;
+    private long count;
+}
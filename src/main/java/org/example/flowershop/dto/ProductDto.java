@@ -5,15 +5,18 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class ProductDto {
     private long id;
     private String name;
     private String description;
     private double price;
     private String image;
+    private Map<String, String> imageVariants;
     private CategoryDto category;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package org.example.flowershop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductFilterRequest {
+    private String q;
+    private List<Long> categoryIds;
+    private Double minPrice;
+    private Double maxPrice;
+    private int page;
+    // Zero or less means the default page size
+    private int size;
+}
@@ -5,8 +5,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.flowershop.dto.CartDto;
 import org.example.flowershop.dto.SaveCartItemRequest;
-import org.example.flowershop.mapper.CartItemMapper;
-import org.example.flowershop.model.entity.CartItem;
 import org.example.flowershop.model.entity.User;
 import org.example.flowershop.repository.CartItemRepository;
 import org.example.flowershop.security.CurrentUser;
@@ -32,7 +30,6 @@ import java.util.List;
 public class CartItemEndpoint {
 
     private final CartItemService cartItemService;
-    private final CartItemMapper cartItemMapper;
     private final CartItemRepository cartItemRepository;
 
     @GetMapping
@@ -42,11 +39,7 @@ public class CartItemEndpoint {
 
         log.info("Fetching cart items for userId: {} ", currentUser.getId());
 
-        List<CartDto> cartItems = cartItemService
-                .getCartByUser(currentUser.getId(), sortBy)
-                .stream()
-                .map(cartItemMapper::toDto)
-                .toList();
+        List<CartDto> cartItems = cartItemService.getCartByUser(currentUser.getId(), sortBy);
         return ResponseEntity.ok(cartItems);
     }
 
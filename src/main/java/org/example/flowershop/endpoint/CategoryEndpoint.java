@@ -6,9 +6,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.flowershop.dto.CategoryDto;
 import org.example.flowershop.dto.SaveCategoryRequest;
 import org.example.flowershop.service.CategoryService;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -45,9 +45,10 @@ public class CategoryEndpoint {
 
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<CategoryDto> categoriesPage = categoryService.findAll(pageable);
+        // Only the content is returned, so the total is never counted
+        Slice<CategoryDto> categories = categoryService.findSlice(pageable);
 
-        return ResponseEntity.ok(categoriesPage.getContent());
+        return ResponseEntity.ok(categories.getContent());
     }
 
 
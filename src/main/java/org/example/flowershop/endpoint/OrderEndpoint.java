@@ -3,13 +3,14 @@ package org.example.flowershop.endpoint;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.dto.CursorPage;
 import org.example.flowershop.dto.OrderDto;
 import org.example.flowershop.dto.SaveOrderRequest;
 import org.example.flowershop.model.entity.User;
 import org.example.flowershop.model.enums.UserType;
 import org.example.flowershop.service.OrderService;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -49,17 +50,33 @@ public class OrderEndpoint {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Page<OrderDto>> getAllOrders(
+    public ResponseEntity<Slice<OrderDto>> getAllOrders(
             Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean count,
             @AuthenticationPrincipal(expression = "user") User currentUser) {
 
-        log.info("GET /orders/all called by userId={}", currentUser.getId());
+        log.info("GET /orders/all called by userId={} count={}", currentUser.getId(), count);
 
         if (currentUser.getUserType() != UserType.ADMIN) {
             throw new AccessDeniedException("Only admins can see all orders");
         }
 
-        return ResponseEntity.ok(orderService.findAll(pageable));
+        return ResponseEntity.ok(count ? orderService.findAll(pageable) : orderService.findSlice(pageable));
+    }
+
+    @GetMapping("/all/scroll")
+    public ResponseEntity<CursorPage<OrderDto>> scrollAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size,
+            @AuthenticationPrincipal(expression = "user") User currentUser) {
+
+        log.info("GET /orders/all/scroll called by userId={} size={}", currentUser.getId(), size);
+
+        if (currentUser.getUserType() != UserType.ADMIN) {
+            throw new AccessDeniedException("Only admins can see all orders");
+        }
+
+        return ResponseEntity.ok(orderService.scrollAll(cursor, size));
     }
 
     @GetMapping("/{id}")
@@ -3,16 +3,29 @@ package org.example.flowershop.endpoint;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.dto.CursorPage;
+import org.example.flowershop.dto.FacetedProductsDto;
+import org.example.flowershop.dto.ProductFilterRequest;
 import org.example.flowershop.dto.ProductDto;
 import org.example.flowershop.dto.SaveProductRequest;
+import org.example.flowershop.dto.SuggestionDto;
+import org.example.flowershop.exception.ImageReadException;
 import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.ImageVariant;
+import org.example.flowershop.service.ProductSearchIndex;
 import org.example.flowershop.service.ProductService;
-import org.springframework.data.domain.Page;
+import org.example.flowershop.service.ProductSuggestIndex;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -23,22 +36,76 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/products")
 @Slf4j
 public class ProductEndpoint {
+    private static final CacheControl IMAGE_CACHE_CONTROL =
+            CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final Pattern CONTENT_HASH_NAME = Pattern.compile("((?:[a-z]+_)?[0-9a-f]{64})(?:\\.[a-z0-9]+)?");
+
     private final ProductService productService;
 
+    // count=false returns a Slice and skips the count query for clients that never show the total
     @GetMapping
-    public ResponseEntity<Page<ProductDto>> getAllProducts(Pageable pageable) {
-        log.info("GET /products {}", pageable);
-        return ResponseEntity.ok(productService.findAll(pageable));
+    public ResponseEntity<Slice<ProductDto>> getAllProducts(
+            Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean count) {
+        log.info("GET /products {} count={}", pageable, count);
+        return ResponseEntity.ok(count ? productService.findAll(pageable) : productService.findSlice(pageable));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ProductDto>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
+        log.info("GET /products/scroll size={}", size);
+        return ResponseEntity.ok(productService.scroll(cursor, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductDto>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + ProductSearchIndex.DEFAULT_LIMIT) int limit) {
+        log.info("GET /products/search?q={} limit={}", q, limit);
+        return ResponseEntity.ok(productService.search(q, limit));
+    }
+
+    @GetMapping("/filter")
+    public ResponseEntity<FacetedProductsDto> filterProducts(@ModelAttribute ProductFilterRequest filter) {
+        log.info("GET /products/filter {}", filter);
+
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice() > filter.getMaxPrice()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "minPrice must not be greater than maxPrice");
+        }
+
+        return ResponseEntity.ok(productService.filter(filter));
+    }
+
+    // Called on every keystroke, so it logs at debug only
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "" + ProductSuggestIndex.DEFAULT_LIMIT) int limit) {
+        log.debug("GET /products/suggest?prefix={} limit={}", prefix, limit);
+        return ResponseEntity.ok(productService.suggest(prefix, limit));
     }
 
     @GetMapping("/{id}")
@@ -55,13 +122,27 @@ public class ProductEndpoint {
 
 
     @GetMapping("/by-category")
-    public ResponseEntity<Page<ProductDto>> getProductsByCategory(
+    public ResponseEntity<Slice<ProductDto>> getProductsByCategory(
+            @RequestParam String category,
+            Pageable pageable,
+            @RequestParam(defaultValue = "true") boolean count) {
+
+        log.info("GET /products/by-category?category={} count={}", category, count);
+
+        return ResponseEntity.ok(count
+                ? productService.findByCategory(category, pageable)
+                : productService.findSliceByCategory(category, pageable));
+    }
+
+    @GetMapping("/by-category/scroll")
+    public ResponseEntity<CursorPage<ProductDto>> scrollProductsByCategory(
             @RequestParam String category,
-            Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + CursorPage.DEFAULT_SIZE) int size) {
 
-        log.info("GET /products/by-category?category={}", category);
+        log.info("GET /products/by-category/scroll?category={} size={}", category, size);
 
-        return ResponseEntity.ok(productService.findByCategory(category, pageable));
+        return ResponseEntity.ok(productService.scrollByCategory(category, cursor, size));
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -106,14 +187,36 @@ public class ProductEndpoint {
 
     @GetMapping("/img/{imageName}")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<byte[]> getImage(@PathVariable String imageName) {
-        log.info("Fetching image with name: {}", imageName);
+    public ResponseEntity<Resource> getImage(@PathVariable String imageName,
+                                             @RequestParam(required = false) String variant,
+                                             WebRequest webRequest) {
+        log.info("Fetching image with name: {}, variant: {}", imageName, variant);
+
+        ImageVariant imageVariant = variant == null ? null : ImageVariant.fromKey(variant)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown image variant: " + variant));
+        String fileName = imageVariant == null ? imageName : imageVariant.fileName(imageName);
 
-        byte[] imageData = productService.getImage(imageName);
+        // Resolved before the conditional check, so a deleted image throws ImageNotFoundException (404) rather than a 304
+        Resource image = productService.getImage(imageName, imageVariant);
+
+        // Stored image names are never rewritten, so the name identifies the content
+        String eTag = imageETag(fileName);
+        CacheControl cacheControl = IMAGE_CACHE_CONTROL;
+        if (!fileName.equals(image.getFilename())) {
+            // The variant is still being generated and the original stands in, which must not be cached as the variant
+            eTag = imageETag(image.getFilename());
+            cacheControl = CacheControl.noCache();
+        }
+        long lastModified = lastModified(image);
 
-        if (imageData == null || imageData.length == 0) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
-                    "Image not found: " + imageName);
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            log.info("Image not modified: {}", fileName);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .build();
         }
 
         String mimeType = URLConnection.guessContentTypeFromName(imageName);
@@ -121,10 +224,75 @@ public class ProductEndpoint {
             mimeType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
         }
 
+        HttpHeaders headers = new HttpHeaders();
+        Resource body = image;
+
+        // Byte ranges are served by Spring for Resource bodies; a stale If-Range must get the whole file instead
+        if (webRequest.getHeader(HttpHeaders.RANGE) != null && !ifRangeMatches(webRequest, eTag, lastModified)) {
+            log.info("If-Range does not match image {}, sending full content", imageName);
+            headers.setContentLength(contentLength(image));
+            body = fullContent(image);
+        }
+
         log.info("Successfully fetched image with name: {}", imageName);
 
         return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .contentType(MediaType.parseMediaType(mimeType))
-                .body(imageData);
+                .body(body);
+    }
+
+    private static String imageETag(String imageName) {
+        // Content-addressed names already carry the SHA-256 of the file
+        Matcher contentHash = CONTENT_HASH_NAME.matcher(imageName);
+        if (contentHash.matches()) {
+            return contentHash.group(1);
+        }
+        return DigestUtils.md5DigestAsHex(imageName.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static boolean ifRangeMatches(WebRequest webRequest, String eTag, long lastModified) {
+        String ifRange = webRequest.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals("\"" + eTag + "\"");
+        }
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return date / 1000 == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static long contentLength(Resource image) {
+        try {
+            return image.contentLength();
+        } catch (IOException e) {
+            throw new ImageReadException("Could not read image file", e);
+        }
+    }
+
+    private static Resource fullContent(Resource image) {
+        try {
+            // Spring never applies byte ranges to a plain InputStreamResource
+            return new InputStreamResource(image.getInputStream());
+        } catch (IOException e) {
+            throw new ImageReadException("Could not read image file", e);
+        }
+    }
+
+    private static long lastModified(Resource image) {
+        try {
+            return image.lastModified();
+        } catch (IOException e) {
+            throw new ImageReadException("Could not read image file", e);
+        }
     }
 }
\ No newline at end of file
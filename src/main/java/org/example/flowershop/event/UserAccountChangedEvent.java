@@ -0,0 +1,10 @@
+package org.example.flowershop.event;
+
+import java.util.Set;
+
+/**
+ * Published when an account is updated or deleted, with every email the account was known by,
+ * so components holding the authenticated user can drop it.
+ */
+public record UserAccountChangedEvent(long userId, Set<String> emails) {
+}
@@ -1,15 +1,16 @@
 package org.example.flowershop.filter;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.example.flowershop.security.JwtPrincipalResolver;
 import org.example.flowershop.util.JwtTokenUtil;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -21,7 +22,7 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
 
-    private final UserDetailsService userDetailsService;
+    private final JwtPrincipalResolver principalResolver;
     private final JwtTokenUtil tokenUtil;
 
     @Override
@@ -33,22 +34,20 @@ public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
         try {
             String requestHeader = request.getHeader("Authorization");
 
-            String username = null;
-            String authToken = null;
+            Claims claims = null;
 
             if (requestHeader != null && requestHeader.startsWith("Bearer ")) {
-                authToken = requestHeader.substring(7);
-                username = tokenUtil.getUsernameFromToken(authToken);
+                // Signature and expiration are checked here, the token is not parsed again below
+                claims = tokenUtil.verifyToken(requestHeader.substring(7));
             }
 
-            if (username != null &&
+            if (claims != null && claims.getSubject() != null &&
                     SecurityContextHolder.getContext().getAuthentication() == null) {
 
                 try {
-                    UserDetails userDetails =
-                            userDetailsService.loadUserByUsername(username);
+                    UserDetails userDetails = principalResolver.resolve(claims);
 
-                    if (tokenUtil.validateToken(authToken, userDetails.getUsername())) {
+                    if (claims.getSubject().equals(userDetails.getUsername())) {
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails,
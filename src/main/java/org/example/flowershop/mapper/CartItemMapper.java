@@ -3,6 +3,7 @@ package org.example.flowershop.mapper;
 import org.example.flowershop.dto.CartDto;
 import org.example.flowershop.dto.SaveCartItemRequest;
 import org.example.flowershop.model.entity.CartItem;
+import org.example.flowershop.repository.projection.CartItemView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -17,5 +18,7 @@ public interface CartItemMapper {
     @Mapping(source = "product.image", target = "productImage")
     CartDto toDto(CartItem cartItem);
 
+    CartDto toDto(CartItemView cartItem);
+
     CartItem toEntity(SaveCartItemRequest cartRequest);
 }
\ No newline at end of file
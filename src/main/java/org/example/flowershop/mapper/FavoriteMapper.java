@@ -3,6 +3,7 @@ package org.example.flowershop.mapper;
 import org.example.flowershop.dto.FavoriteDto;
 import org.example.flowershop.dto.SaveFavoriteRequest;
 import org.example.flowershop.model.entity.Favorite;
+import org.example.flowershop.repository.projection.FavoriteView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -17,6 +18,8 @@ public interface FavoriteMapper {
     @Mapping(source = "product.image", target = "productImage")
     FavoriteDto toDto(Favorite favorite);
 
+    FavoriteDto toDto(FavoriteView favorite);
+
 
     Favorite toEntity(SaveFavoriteRequest favoriteRequest);
 
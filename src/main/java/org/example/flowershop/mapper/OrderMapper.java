@@ -1,16 +1,15 @@
 package org.example.flowershop.mapper;
 
 import org.example.flowershop.dto.OrderDto;
-import org.example.flowershop.dto.ProductDto;
 import org.example.flowershop.dto.SaveOrderRequest;
 import org.example.flowershop.model.entity.Order;
-import org.example.flowershop.model.entity.Product;
+import org.example.flowershop.repository.projection.OrderView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 import java.util.List;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = ProductMapper.class)
 public interface OrderMapper {
 
     @Mapping(source = "user.id", target = "userId")
@@ -18,10 +17,18 @@ public interface OrderMapper {
 
     List<OrderDto> toDtoList(List<Order> orders);
 
+    @Mapping(target = "product.id", source = "productId")
+    @Mapping(target = "product.name", source = "productName")
+    @Mapping(target = "product.description", source = "productDescription")
+    @Mapping(target = "product.price", source = "productPrice")
+    @Mapping(target = "product.image", source = "productImage")
+    @Mapping(target = "product.imageVariants", source = "productImage")
+    @Mapping(target = "product.category.id", source = "categoryId")
+    @Mapping(target = "product.category.name", source = "categoryName")
+    OrderDto toDto(OrderView order);
+
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "product", ignore = true)
     @Mapping(target = "orderDate", ignore = true)
     Order toEntity(SaveOrderRequest orderRequest);
-
-    ProductDto toProductDto(Product product);
 }
@@ -3,14 +3,39 @@ package org.example.flowershop.mapper;
 import org.example.flowershop.dto.ProductDto;
 import org.example.flowershop.dto.SaveProductRequest;
 import org.example.flowershop.model.entity.Product;
+import org.example.flowershop.model.enums.ImageVariant;
+import org.example.flowershop.repository.projection.ProductView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Mapper(componentModel = "spring", uses = CategoryMapper.class)
 public interface ProductMapper {
 
     @Mapping(target = "category", source = "category")
+    @Mapping(target = "imageVariants", source = "image")
     ProductDto toDto(Product product);
 
+    @Mapping(target = "category.id", source = "categoryId")
+    @Mapping(target = "category.name", source = "categoryName")
+    @Mapping(target = "imageVariants", source = "image")
+    ProductDto toDto(ProductView product);
+
     Product toEntity(SaveProductRequest productRequest);
-}
\ No newline at end of file
+
+    default Map<String, String> toImageVariants(String image) {
+        if (image == null) {
+            return null;
+        }
+        String path = "/products/img/" + UriUtils.encodePathSegment(image, StandardCharsets.UTF_8);
+        Map<String, String> variants = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            variants.put(variant.getKey(), path + "?variant=" + variant.getKey());
+        }
+        return variants;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.flowershop.model.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+    THUMB("thumb", 200),
+    CARD("card", 600),
+    DETAIL("detail", 1200);
+
+    private final String key;
+    private final int maxSize;
+
+    public String fileName(String imageName) {
+        return key + "_" + imageName;
+    }
+
+    public static Optional<ImageVariant> fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(variant -> variant.key.equalsIgnoreCase(key))
+                .findFirst();
+    }
+}
@@ -0,0 +1,5 @@
+package org.example.flowershop.model.enums;
+
+public enum MailType {
+    WELCOME
+}
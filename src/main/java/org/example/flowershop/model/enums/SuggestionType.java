@@ -0,0 +1,6 @@
+package org.example.flowershop.model.enums;
+
+public enum SuggestionType {
+    PRODUCT,
+    CATEGORY
+}
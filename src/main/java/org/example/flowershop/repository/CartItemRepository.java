@@ -1,14 +1,24 @@
 package org.example.flowershop.repository;
 
 import org.example.flowershop.model.entity.CartItem;
+import org.example.flowershop.repository.projection.CartItemView;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    List<CartItem> findAllByUserId(long userId, Sort sort);
+    // Sort by the select aliases, e.g. productName
+    @Query("""
+            select c.id as id, p.id as productId, p.name as productName, p.description as productDescription,
+                   p.price as productPrice, p.image as productImage
+            from CartItem c join c.product p
+            where c.user.id = :userId
+            """)
+    List<CartItemView> findViewsByUserId(@Param("userId") long userId, Sort sort);
 
     Optional<CartItem> findByIdAndUserId(long cartItemId, long userId);
 
@@ -1,8 +1,12 @@
 package org.example.flowershop.repository;
 
 import org.example.flowershop.model.entity.Category;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
@@ -10,4 +14,9 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
 
     Optional<Category> findByNameIgnoreCase(String categoryName);
+
+    Slice<Category> findAllBy(Pageable pageable);
+
+    @Query("select c.name from Category c")
+    List<String> findAllNames();
 }
@@ -1,13 +1,23 @@
 package org.example.flowershop.repository;
 
 import org.example.flowershop.model.entity.Favorite;
+import org.example.flowershop.repository.projection.FavoriteView;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
-    List<Favorite> findAllByUserId(long id, Sort sort);
+    // Sort by the select aliases, e.g. productName
+    @Query("""
+            select f.id as id, f.user.id as userId, p.id as productId, p.name as productName,
+                   p.description as productDescription, p.price as productPrice, p.image as productImage
+            from Favorite f join f.product p
+            where f.user.id = :userId
+            """)
+    List<FavoriteView> findViewsByUserId(@Param("userId") long userId, Sort sort);
 
     boolean existsByUserId(long id);
 }
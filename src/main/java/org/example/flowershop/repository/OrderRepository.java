@@ -1,17 +1,66 @@
 package org.example.flowershop.repository;
 
 import org.example.flowershop.model.entity.Order;
+import org.example.flowershop.model.enums.Status;
+import org.example.flowershop.repository.projection.OrderView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findAllByUserIdOrderByPriceAsc(long userId);
+    // Selects only what the order list shows, straight into a projection; sort by the select aliases
+    @Query("""
+            select o.id as id, o.user.id as userId, o.price as price, o.status as status,
+                   o.orderDate as orderDate, o.address as address, o.quantity as quantity,
+                   p.id as productId, p.name as productName, p.description as productDescription,
+                   p.price as productPrice, p.image as productImage, c.id as categoryId, c.name as categoryName
+            from Order o join o.product p join p.category c
+            where o.user.id = :userId
+            """)
+    List<OrderView> findViewsByUserId(@Param("userId") long userId, Sort sort);
 
-    List<Order> findAllByUserIdOrderByStatusAsc(long userId);
+    boolean existsByUserId(long id);
 
-    List<Order> findAllByUserIdOrderByOrderDateDesc(long userId);
+    @EntityGraph(attributePaths = {"product", "product.category"})
+    Slice<Order> findAllBy(Pageable pageable);
 
-    boolean existsByUserId(long id);
-}
\ No newline at end of file
+    // Keyset pages for the admin view, newest first
+    @EntityGraph(attributePaths = {"product", "product.category"})
+    @Query("select o from Order o order by o.orderDate desc, o.id desc")
+    List<Order> findFirstOrderByOrderDateDescAndIdDesc(Limit limit);
+
+    @EntityGraph(attributePaths = {"product", "product.category"})
+    @Query("select o from Order o where (o.orderDate, o.id) < (:orderDate, :id) order by o.orderDate desc, o.id desc")
+    List<Order> findBeforeOrderByOrderDateDescAndIdDesc(@Param("orderDate") LocalDateTime orderDate,
+                                                        @Param("id") long id,
+                                                        Limit limit);
+
+    // Same update as below, reporting the moved ids from the statement itself. @Modifying only allows count
+    // return types, so this runs as a result query: Hibernate flushes pending changes before it, but Order
+    // entities already loaded in the persistence context keep their old status. Call it from a transaction
+    // that has loaded none, as OrderStatusScheduler does.
+    @Query(value = """
+            update orders set status = :#{#to.name()}
+            where status = :#{#from.name()} and order_date <= :cutoff
+            returning id
+            """, nativeQuery = true)
+    List<Long> updateStatusByStatusAndOrderDateNotAfterReturningIds(@Param("from") Status from,
+                                                                    @Param("to") Status to,
+                                                                    @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("update Order o set o.status = :to where o.status = :from and o.orderDate <= :cutoff")
+    int updateStatusByStatusAndOrderDateNotAfter(@Param("from") Status from,
+                                                 @Param("to") Status to,
+                                                 @Param("cutoff") LocalDateTime cutoff);
+}
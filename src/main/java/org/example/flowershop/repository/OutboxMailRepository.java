@@ -0,0 +1,22 @@
+package org.example.flowershop.repository;
+
+import org.example.flowershop.model.entity.OutboxMail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+
+    // Rows locked by another dispatcher are skipped instead of waited on
+    @Query(value = """
+            select * from mail_outbox
+            where status = 'PENDING' and next_attempt_at <= :now
+            order by next_attempt_at
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<OutboxMail> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -2,14 +2,62 @@ package org.example.flowershop.repository;
 
 import org.example.flowershop.model.entity.Category;
 import org.example.flowershop.model.entity.Product;
-import org.springframework.data.domain.Page;
+import org.example.flowershop.repository.projection.ProductView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findByName(String name);
 
-    Page<Product> findAllByCategory(Category category, Pageable pageable);
+    // Slice finders fetch one extra row instead of running count(*); PageCountCache supplies totals.
+    // The catalog page selects straight into a projection; pageable sorts use the select aliases
+    @Query("""
+            select p.id as id, p.name as name, p.description as description, p.price as price,
+                   p.image as image, c.id as categoryId, c.name as categoryName
+            from Product p join p.category c
+            """)
+    Slice<ProductView> findViewsBy(Pageable pageable);
+
+    // Every other listing maps the category, so it is joined in rather than loaded per product
+
+    @EntityGraph(attributePaths = "category")
+    Slice<Product> findSliceByCategory(Category category, Pageable pageable);
+
+    long countByCategory(Category category);
+
+    // Names only, for the typeahead index; avoids hydrating whole products
+    @Query("select p.name from Product p")
+    List<String> findAllNames();
+
+    // Keyset pages ordered by (name, id); the row comparison lets PostgreSQL seek instead of skipping rows
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p order by p.name, p.id")
+    List<Product> findFirstOrderByNameAndId(Limit limit);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where (p.name, p.id) > (:name, :id) order by p.name, p.id")
+    List<Product> findAfterOrderByNameAndId(@Param("name") String name, @Param("id") long id, Limit limit);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where p.category = :category order by p.name, p.id")
+    List<Product> findFirstByCategoryOrderByNameAndId(@Param("category") Category category, Limit limit);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("select p from Product p where p.category = :category and (p.name, p.id) > (:name, :id) order by p.name, p.id")
+    List<Product> findAfterByCategoryOrderByNameAndId(@Param("category") Category category,
+                                                       @Param("name") String name,
+                                                       @Param("id") long id,
+                                                       Limit limit);
+
+    @Query("select distinct p.image from Product p where p.image is not null")
+    Set<String> findAllImageNames();
 }
@@ -2,6 +2,9 @@ package org.example.flowershop.repository;
 
 import org.example.flowershop.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -11,7 +14,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
+    boolean existsByEmail(String email);
+
+    boolean existsByUsername(String username);
+
     boolean existsByEmailAndIdNot(String email, long id);
 
     boolean existsByUsernameAndIdNot(String username, long id);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id and u.password = :previous")
+    int updatePassword(@Param("id") long id,
+                       @Param("previous") String previous,
+                       @Param("password") String password);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package org.example.flowershop.repository.projection;
+
+/**
+ * Cart row flattened with the product columns the cart shows.
+ */
+public interface CartItemView {
+    long getId();
+
+    long getProductId();
+
+    String getProductName();
+
+    String getProductDescription();
+
+    double getProductPrice();
+
+    String getProductImage();
+}
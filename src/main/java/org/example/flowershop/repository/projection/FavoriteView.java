@@ -0,0 +1,20 @@
+package org.example.flowershop.repository.projection;
+
+/**
+ * Favorite row flattened with the product columns the favorites list shows.
+ */
+public interface FavoriteView {
+    long getId();
+
+    long getUserId();
+
+    long getProductId();
+
+    String getProductName();
+
+    String getProductDescription();
+
+    double getProductPrice();
+
+    String getProductImage();
+}
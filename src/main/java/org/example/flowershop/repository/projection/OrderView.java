@@ -0,0 +1,38 @@
+package org.example.flowershop.repository.projection;
+
+import org.example.flowershop.model.enums.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order row for a user's order list, flattened with the ordered product and its category.
+ */
+public interface OrderView {
+    long getId();
+
+    Long getUserId();
+
+    double getPrice();
+
+    Status getStatus();
+
+    LocalDateTime getOrderDate();
+
+    String getAddress();
+
+    int getQuantity();
+
+    long getProductId();
+
+    String getProductName();
+
+    String getProductDescription();
+
+    double getProductPrice();
+
+    String getProductImage();
+
+    long getCategoryId();
+
+    String getCategoryName();
+}
@@ -0,0 +1,20 @@
+package org.example.flowershop.repository.projection;
+
+/**
+ * Product row for catalog listings: the product columns and its category, nothing else.
+ */
+public interface ProductView {
+    long getId();
+
+    String getName();
+
+    String getDescription();
+
+    double getPrice();
+
+    String getImage();
+
+    long getCategoryId();
+
+    String getCategoryName();
+}
@@ -12,7 +12,7 @@ public class CurrentUser extends org.springframework.security.core.userdetails.U
     public CurrentUser(User user) {
         super(
                 user.getEmail(),
-                user.getPassword(),
+                user.getPassword() != null ? user.getPassword() : "",
                 AuthorityUtils.createAuthorityList(
                         user.getUserType() != null
                                 ? "ROLE_" + user.getUserType().name()
@@ -0,0 +1,95 @@
+package org.example.flowershop.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.event.UserAccountChangedEvent;
+import org.example.flowershop.model.entity.User;
+import org.example.flowershop.repository.UserRepository;
+import org.example.flowershop.util.JwtTokenUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Turns verified token claims into the request principal.
+ * In claims mode the principal is built from the token itself, and the database is consulted
+ * at most once per user per {@code jwt.claims-principal.max-staleness} to confirm the account
+ * still exists with the same id and type, so deleted users and role changes take effect within that window.
+ * That check reads the repository directly; the user details cache has its own, longer TTL and would
+ * stretch the window.
+ */
+@Component
+@Slf4j
+public class JwtPrincipalResolver {
+
+    private final UserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final JwtTokenUtil tokenUtil;
+    private final boolean claimsPrincipalEnabled;
+    private final Cache<String, User> recentlyVerified;
+
+    public JwtPrincipalResolver(UserDetailsService userDetailsService,
+                                UserRepository userRepository,
+                                JwtTokenUtil tokenUtil,
+                                @Value("${jwt.claims-principal.enabled:true}") boolean claimsPrincipalEnabled,
+                                @Value("${jwt.claims-principal.max-staleness:1m}") Duration maxStaleness,
+                                @Value("${jwt.claims-principal.max-size:10000}") long maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.userRepository = userRepository;
+        this.tokenUtil = tokenUtil;
+        this.claimsPrincipalEnabled = claimsPrincipalEnabled;
+        this.recentlyVerified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(maxStaleness)
+                .build();
+    }
+
+    /**
+     * @throws UsernameNotFoundException if the token subject no longer has an account
+     */
+    public UserDetails resolve(Claims claims) {
+        String email = claims.getSubject();
+        Optional<User> claimsUser = claimsPrincipalEnabled ? tokenUtil.getUserFromClaims(claims) : Optional.empty();
+
+        if (claimsUser.isEmpty()) {
+            return userDetailsService.loadUserByUsername(email);
+        }
+        if (sameAccount(recentlyVerified.getIfPresent(email), claimsUser.get())) {
+            return new CurrentUser(claimsUser.get());
+        }
+
+        User stored = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User with " + email + " email does not exist"));
+
+        if (sameAccount(stored, claimsUser.get())) {
+            recentlyVerified.put(email, stored);
+        } else {
+            log.info("Token claims for {} are stale, using the stored account", email);
+        }
+        return new CurrentUser(stored);
+    }
+
+    public void evict(String email) {
+        recentlyVerified.invalidate(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        recentlyVerified.invalidateAll(event.emails());
+    }
+
+    private static boolean sameAccount(User stored, User fromClaims) {
+        return stored != null
+                && Objects.equals(stored.getId(), fromClaims.getId())
+                && stored.getUserType() == fromClaims.getUserType();
+    }
+}
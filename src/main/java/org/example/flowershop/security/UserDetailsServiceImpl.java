@@ -1,25 +1,60 @@
 package org.example.flowershop.security;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.event.UserAccountChangedEvent;
 import org.example.flowershop.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserService userService;
+    private final Cache<String, CurrentUser> usersByEmail;
+
+    public UserDetailsServiceImpl(UserService userService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.user-cache.max-size:10000}") long maxSize,
+                                  @Value("${security.user-cache.ttl:5m}") Duration ttl) {
+        this.userService = userService;
+        this.usersByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByEmail, "userDetails");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userService.findByEmail(username)
+        // Unknown emails are not cached, so an account registered afterwards is found right away
+        CurrentUser currentUser = usersByEmail.get(username, email -> userService.findByEmail(email)
                 .map(CurrentUser::new)
-                .orElseThrow(() ->
-                        new UsernameNotFoundException(
-                                "User with " + username + " email does not exist"
-                        ));
+                .orElse(null));
+
+        if (currentUser == null) {
+            throw new UsernameNotFoundException(
+                    "User with " + username + " email does not exist"
+            );
+        }
+        return currentUser;
+    }
+
+    // Runs after commit so a concurrent request cannot cache the account as it was before the change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        usersByEmail.invalidateAll(event.emails());
+        log.debug("Evicted user id={} from user details cache", event.userId());
     }
-}
\ No newline at end of file
+}
@@ -4,10 +4,13 @@ import org.example.flowershop.dto.CategoryDto;
 import org.example.flowershop.dto.SaveCategoryRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface CategoryService {
     Page<CategoryDto> findAll(Pageable pageable);
 
+    Slice<CategoryDto> findSlice(Pageable pageable);
+
     CategoryDto findById(long id);
 
     CategoryDto findByName(String name);
@@ -0,0 +1,23 @@
+package org.example.flowershop.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImageGarbageCollector {
+    private final ImageStorageService imageStorageService;
+
+    @Scheduled(initialDelayString = "${images.gc.interval:1h}", fixedDelayString = "${images.gc.interval:1h}")
+    public void deleteUnreferencedImages() {
+        int deleted = imageStorageService.deleteUnreferenced();
+
+        if (deleted > 0) {
+            log.info("{} unreferenced image files deleted", deleted);
+        }
+    }
+}
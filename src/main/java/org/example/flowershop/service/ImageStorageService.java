@@ -0,0 +1,13 @@
+package org.example.flowershop.service;
+
+import org.example.flowershop.model.enums.ImageVariant;
+import org.springframework.core.io.Resource;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImageStorageService {
+    String store(MultipartFile image);
+
+    Resource load(String imageName, ImageVariant variant);
+
+    int deleteUnreferenced();
+}
@@ -0,0 +1,143 @@
+package org.example.flowershop.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.model.enums.ImageVariant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the downscaled {@link ImageVariant}s of an uploaded image next to the original,
+ * on a small background pool so uploads do not wait for decoding and resizing.
+ */
+@Component
+@Slf4j
+public class ImageVariantGenerator {
+    private static final long MAX_SOURCE_PIXELS = 50_000_000L;
+
+    private final ThreadPoolExecutor executor;
+
+    public ImageVariantGenerator(@Value("${images.variants.threads:2}") int threads,
+                                 @Value("${images.variants.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public void generateAsync(Path original) {
+        try {
+            executor.execute(() -> generate(original));
+        } catch (RejectedExecutionException e) {
+            // Variant requests fall back to the original until variants exist
+            log.warn("Image variant queue is full, skipping variants for {}", original.getFileName());
+        }
+    }
+
+    public void generate(Path original) {
+        String imageName = original.getFileName().toString();
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                log.info("No image reader for {}, variants not generated", imageName);
+                return;
+            }
+
+            ImageReader reader = readers.next();
+            BufferedImage source;
+            String format;
+            try {
+                reader.setInput(in, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_SOURCE_PIXELS) {
+                    log.warn("Image {} is too large to resize, variants not generated", imageName);
+                    return;
+                }
+                format = reader.getFormatName();
+                source = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+
+            for (ImageVariant variant : ImageVariant.values()) {
+                writeVariant(source, format, original.resolveSibling(variant.fileName(imageName)), variant);
+            }
+            log.info("Generated image variants for {}", imageName);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate image variants for {}", imageName, e);
+        }
+    }
+
+    private void writeVariant(BufferedImage source, String format, Path target, ImageVariant variant) throws IOException {
+        BufferedImage scaled = scale(source, variant.getMaxSize(), hasAlpha(format));
+
+        // Written under a temporary name and moved into place, so a variant is never served half-written
+        Path tmp = Files.createTempFile(target.getParent(), variant.getKey(), ".tmp");
+        try {
+            if (!ImageIO.write(scaled, format, tmp.toFile())) {
+                log.info("No image writer for format {}, variant {} not generated", format, variant.getKey());
+                return;
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxSize, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        // Halving in steps keeps bilinear downscaling from dropping detail on large photos
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    private static boolean hasAlpha(String format) {
+        return !format.equalsIgnoreCase("jpeg") && !format.equalsIgnoreCase("jpg") && !format.equalsIgnoreCase("bmp");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.flowershop.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.exception.MailSendingException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accumulates outgoing messages and sends them in batches, one SMTP connection per batch.
+ * <p>
+ * A batch is flushed once it reaches the configured size or the first message in it has waited
+ * for the linger time, whichever comes first. Each caller gets a future that completes when its
+ * own message was accepted by the server, so one rejected recipient does not fail the whole batch.
+ */
+@Component
+@Slf4j
+public class MailBatchSender {
+
+    private final JavaMailSender mailSender;
+    private final BlockingQueue<PendingMail> queue;
+    private final int batchSize;
+    private final Duration linger;
+    private final Thread worker;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter sentMessages;
+    private final Counter failedMessages;
+    private volatile boolean running = true;
+
+    public MailBatchSender(JavaMailSender mailSender,
+                           MeterRegistry meterRegistry,
+                           @Value("${mail.batch.size:50}") int batchSize,
+                           @Value("${mail.batch.linger:200ms}") Duration linger,
+                           @Value("${mail.batch.queue-capacity:1000}") int queueCapacity,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.mailSender = mailSender;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        this.batchTimer = Timer.builder("mail.batch.duration")
+                .description("Time spent sending one batch over a single SMTP connection")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("mail.batch.size")
+                .description("Number of messages sent per SMTP connection")
+                .register(meterRegistry);
+        this.sentMessages = Counter.builder("mail.batch.messages")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.failedMessages = Counter.builder("mail.batch.messages")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        meterRegistry.gauge("mail.batch.queued", queue, BlockingQueue::size);
+
+        Thread.Builder threadBuilder = virtualThreads
+                ? Thread.ofVirtual()
+                : Thread.ofPlatform().daemon();
+        this.worker = threadBuilder.name("mail-batch-sender").start(this::run);
+    }
+
+    public CompletableFuture<Void> send(MimeMessage message) {
+        PendingMail pending = new PendingMail(message, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            log.warn("Mail send queue is full, rejecting message");
+            pending.result().completeExceptionally(new MailSendingException("Mail send queue is full", null));
+        }
+        return pending.result();
+    }
+
+    private void run() {
+        List<PendingMail> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // Shutdown: whatever was collected is still sent, then the loop drains the rest
+            }
+            if (!batch.isEmpty()) {
+                sendBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collect(List<PendingMail> batch) throws InterruptedException {
+        PendingMail first = running ? queue.take() : queue.poll();
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + linger.toNanos();
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingMail next = remaining > 0 && running
+                    ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                    : queue.poll();
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    void sendBatch(List<PendingMail> batch) {
+        MimeMessage[] messages = batch.stream()
+                .map(PendingMail::message)
+                .toArray(MimeMessage[]::new);
+
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Carries the messages the server refused; a failed connection lists all of them
+            failures = e.getFailedMessages();
+            batchFailure = failures.isEmpty() ? e : null;
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+        sample.stop(batchTimer);
+        batchSizes.record(batch.size());
+
+        int failed = 0;
+        for (PendingMail pending : batch) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(pending.message());
+            if (failure == null) {
+                pending.result().complete(null);
+            } else {
+                failed++;
+                pending.result().completeExceptionally(new MailSendingException("Failed to send email", failure));
+            }
+        }
+        sentMessages.increment(batch.size() - failed);
+        failedMessages.increment(failed);
+
+        if (failed > 0) {
+            log.warn("Sent mail batch of {} messages, {} failed", batch.size(), failed, batchFailure);
+        } else {
+            log.info("Sent mail batch of {} messages", batch.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    record PendingMail(MimeMessage message, CompletableFuture<Void> result) {
+    }
+}
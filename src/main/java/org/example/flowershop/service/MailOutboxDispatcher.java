@@ -0,0 +1,206 @@
+package org.example.flowershop.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.model.entity.OutboxMail;
+import org.example.flowershop.model.enums.MailStatus;
+import org.example.flowershop.repository.OutboxMailRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the mail outbox on a bounded worker pool.
+ * <p>
+ * Due rows are claimed with {@code SKIP LOCKED} and leased by pushing {@code next_attempt_at} forward,
+ * so concurrent instances never pick the same mail and a crash mid-send only delays it until the lease ends.
+ * Each claim is handed to one worker, which queues it on {@link MailBatchSender} as a whole and waits for it
+ * until a deadline a fifth of the lease short of its end; sends still in flight then stay claimed and are
+ * retried once the lease runs out, so no other instance can pick a mail up while its result is being saved.
+ * Failed sends are retried with exponential backoff and marked {@link MailStatus#DEAD} after the last attempt.
+ */
+@Component
+@Slf4j
+public class MailOutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxMailRepository outboxMailRepository;
+    private final MailService mailService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+
+    public MailOutboxDispatcher(OutboxMailRepository outboxMailRepository,
+                                MailService mailService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${mail.outbox.threads:2}") int threads,
+                                @Value("${mail.outbox.batch-size:50}") int batchSize,
+                                @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                                @Value("${mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                @Value("${mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                                @Value("${mail.outbox.lease:5m}") Duration lease,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.outboxMailRepository = outboxMailRepository;
+        this.mailService = mailService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+
+        // Workers mostly wait on the database and the batch sender, so they can be virtual; the pool still caps them
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("mail-outbox-", 1).factory()
+                : Thread.ofPlatform().name("mail-outbox-", 1).daemon().factory();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), threadFactory);
+    }
+
+    @Scheduled(initialDelayString = "${mail.outbox.poll-interval:5s}", fixedDelayString = "${mail.outbox.poll-interval:5s}")
+    public void dispatch() {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + lease.toNanos() * 4 / 5;
+        List<Long> claimed = claim(batchSize);
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> deliver(claimed, deadline));
+        } catch (RejectedExecutionException e) {
+            // The lease expires and the mails are claimed again on a later run
+            log.warn("Mail outbox workers are busy, deferring {} mails", claimed.size());
+        }
+    }
+
+    List<Long> claim(int limit) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMail> due = outboxMailRepository.findDueForUpdate(now, limit);
+            due.forEach(mail -> mail.setNextAttemptAt(now.plus(lease)));
+            return due.stream().map(OutboxMail::getId).toList();
+        });
+    }
+
+    /**
+     * @param deadline {@link System#nanoTime()} after which results are no longer awaited
+     */
+    void deliver(List<Long> ids, long deadline) {
+        List<OutboxMail> mails = outboxMailRepository.findAllById(ids).stream()
+                .filter(mail -> mail.getStatus() == MailStatus.PENDING)
+                .toList();
+        if (mails.isEmpty()) {
+            return;
+        }
+
+        // Render and queue the whole claim first so the batch sender can put it on one connection
+        List<CompletableFuture<Void>> results = mails.stream()
+                .map(this::send)
+                .toList();
+
+        List<OutboxMail> finished = new ArrayList<>();
+        for (int i = 0; i < mails.size(); i++) {
+            CompletableFuture<Void> result = results.get(i);
+            if (await(result, deadline)) {
+                record(mails.get(i), result.state() == Future.State.SUCCESS ? null : result.exceptionNow());
+                finished.add(mails.get(i));
+            }
+        }
+
+        if (finished.size() < mails.size()) {
+            log.warn("{} mails still sending at the lease deadline, leaving them claimed",
+                    mails.size() - finished.size());
+        }
+        if (!finished.isEmpty()) {
+            outboxMailRepository.saveAll(finished);
+        }
+    }
+
+    private void record(OutboxMail mail, Throwable failure) {
+        if (failure == null) {
+            mail.setStatus(MailStatus.SENT);
+            mail.setSentAt(LocalDateTime.now());
+            mail.setLastError(null);
+            return;
+        }
+
+        int attempts = mail.getAttempts() + 1;
+        mail.setAttempts(attempts);
+        mail.setLastError(truncate(failure.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            mail.setStatus(MailStatus.DEAD);
+            log.error("Giving up on {} mail id={} to {} after {} attempts",
+                    mail.getType(), mail.getId(), mail.getRecipient(), attempts, failure);
+        } else {
+            Duration delay = backoff(attempts);
+            mail.setNextAttemptAt(LocalDateTime.now().plus(delay));
+            log.warn("Failed to send {} mail id={}, retrying in {}", mail.getType(), mail.getId(), delay);
+        }
+    }
+
+    // Returns whether the send finished, successfully or not, before the deadline
+    private static boolean await(CompletableFuture<Void> result, long deadline) {
+        try {
+            result.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private CompletableFuture<Void> send(OutboxMail mail) {
+        try {
+            return switch (mail.getType()) {
+                case WELCOME -> mailService.sendWelcomeMail(mail.getRecipient(), mail.getRecipientName());
+            };
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,8 +2,12 @@ package org.example.flowershop.service;
 
 import org.example.flowershop.model.entity.User;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface MailService {
-    void sendMail(String to, String subject, String text);
+    CompletableFuture<Void> sendMail(String to, String subject, String text);
+
+    void enqueueWelcomeMail(User user);
 
-    void sendWelcomeMail(User user);
-}
\ No newline at end of file
+    CompletableFuture<Void> sendWelcomeMail(String to, String username);
+}
@@ -0,0 +1,80 @@
+package org.example.flowershop.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.expression.EvaluationException;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateEngineException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders mail templates and records the render time per template.
+ * <p>
+ * Every template under {@code mail.templates.location} is rendered once at startup, so a broken
+ * template stops the application instead of the first mail that uses it, and with caching
+ * enabled the parsed template is already in the engine's cache when the first mail goes out.
+ * The render has no variables, so expressions that fail only because a variable is missing are
+ * ignored; broken markup and expression syntax still fail.
+ */
+@Component
+@Slf4j
+public class MailTemplateRenderer {
+
+    private final TemplateEngine templateEngine;
+    private final MeterRegistry meterRegistry;
+    private final String location;
+    private final Map<String, Timer> renderTimers = new ConcurrentHashMap<>();
+
+    public MailTemplateRenderer(TemplateEngine templateEngine,
+                                MeterRegistry meterRegistry,
+                                @Value("${mail.templates.location:mail/}") String location) {
+        this.templateEngine = templateEngine;
+        this.meterRegistry = meterRegistry;
+        this.location = location;
+    }
+
+    public String render(String template, Context context) {
+        Timer timer = renderTimers.computeIfAbsent(template, name -> Timer.builder("mail.template.render")
+                .tag("template", name)
+                .register(meterRegistry));
+        return timer.record(() -> templateEngine.process(template, context));
+    }
+
+    @PostConstruct
+    void preload() throws IOException {
+        Resource[] templates = new PathMatchingResourcePatternResolver()
+                .getResources("classpath*:" + location + "*");
+
+        for (Resource resource : templates) {
+            String template = location + resource.getFilename();
+            try {
+                templateEngine.process(template, new Context());
+            } catch (TemplateEngineException e) {
+                if (!isEvaluationFailure(e)) {
+                    throw new IllegalStateException("Mail template " + template + " could not be parsed", e);
+                }
+                log.debug("Mail template {} parsed, its expressions need a real context: {}", template, e.getMessage());
+            }
+        }
+        log.info("Preloaded {} mail templates from {}", templates.length, location);
+    }
+
+    private static boolean isEvaluationFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof EvaluationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
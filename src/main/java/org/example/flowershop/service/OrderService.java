@@ -1,17 +1,23 @@
 package org.example.flowershop.service;
 
 import jakarta.validation.Valid;
+import org.example.flowershop.dto.CursorPage;
 import org.example.flowershop.dto.OrderDto;
 import org.example.flowershop.dto.SaveOrderRequest;
 import org.example.flowershop.model.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 public interface OrderService {
     Page<OrderDto> findAll(Pageable pageable);
 
+    Slice<OrderDto> findSlice(Pageable pageable);
+
+    CursorPage<OrderDto> scrollAll(String cursor, int size);
+
     OrderDto findByIdForUser(long id, User currentUser);
 
     OrderDto save(SaveOrderRequest orderRequest, long userId);
@@ -1,12 +1,12 @@
 package org.example.flowershop.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.flowershop.model.entity.Order;
 import org.example.flowershop.model.enums.Status;
 import org.example.flowershop.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -14,36 +14,58 @@ import java.util.List;
 
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OrderStatusScheduler {
     private final OrderRepository orderRepository;
+    private final boolean logTransitions;
+
+    public OrderStatusScheduler(OrderRepository orderRepository,
+                                @Value("${orders.status-scheduler.log-transitions:false}") boolean logTransitions) {
+        this.orderRepository = orderRepository;
+        this.logTransitions = logTransitions;
+    }
 
     @Scheduled(fixedRate = 60000)
+    @Transactional
     public void updateOrderStatuses() {
 
         LocalDateTime now = LocalDateTime.now();
 
-        List<Order> orders = orderRepository.findAll();
+        // Later transitions run first so an order moves at most one step per run
+        for (StatusTransition transition : StatusTransition.values()) {
 
-        for (Order order : orders) {
+            LocalDateTime cutoff = now.minus(transition.delay);
 
-            long minutes =
-                    Duration.between(order.getOrderDate(), now).toMinutes();
+            int moved;
+            if (logTransitions) {
+                List<Long> orderIds = orderRepository.updateStatusByStatusAndOrderDateNotAfterReturningIds(
+                        transition.from, transition.to, cutoff);
 
-            if (order.getStatus() == Status.NEW && minutes >= 10) {
+                orderIds.forEach(id -> log.debug("Order {} changed to {}", id, transition.to));
+                moved = orderIds.size();
+            } else {
+                moved = orderRepository.updateStatusByStatusAndOrderDateNotAfter(
+                        transition.from, transition.to, cutoff);
+            }
 
-                order.setStatus(Status.IN_DELIVERY);
-                orderRepository.save(order);
+            if (moved > 0) {
+                log.info("{} orders changed from {} to {}", moved, transition.from, transition.to);
+            }
+        }
+    }
 
-                log.info("Order {} changed to IN_DELIVERY", order.getId());
-            } else if (order.getStatus() == Status.IN_DELIVERY && minutes >= 30) {
+    enum StatusTransition {
+        IN_DELIVERY_TO_DELIVERED(Status.IN_DELIVERY, Status.DELIVERED, Duration.ofMinutes(30)),
+        NEW_TO_IN_DELIVERY(Status.NEW, Status.IN_DELIVERY, Duration.ofMinutes(10));
 
-                order.setStatus(Status.DELIVERED);
-                orderRepository.save(order);
+        private final Status from;
+        private final Status to;
+        private final Duration delay;
 
-                log.info("Order {} changed to DELIVERED", order.getId());
-            }
+        StatusTransition(Status from, Status to, Duration delay) {
+            this.from = from;
+            this.to = to;
+            this.delay = delay;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package org.example.flowershop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived cache of {@code count(*)} results for paged listings, keyed by entity and filter.
+ * A listing fetches its rows as a {@link Slice} and takes the total from here, so a warm
+ * cache turns two queries per page into one.
+ */
+@Component
+@Slf4j
+public class PageCountCache {
+
+    private final Cache<CountKey, Long> counts;
+
+    public PageCountCache(@Value("${pagination.count-cache.max-size:1000}") long maxSize,
+                          @Value("${pagination.count-cache.ttl:30s}") Duration ttl) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // The count is skipped entirely when the slice already shows where the listing ends
+    public <T> Page<T> toPage(Class<?> entity, Object filter, Slice<T> slice, LongSupplier counter) {
+        return PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(),
+                () -> counts.get(new CountKey(entity, filter), key -> counter.getAsLong()));
+    }
+
+    /**
+     * Drops every cached count for the entity. Like the catalog cache, the eviction
+     * is repeated after commit so a concurrent read cannot re-cache the old total.
+     */
+    public void evict(Class<?> entity) {
+        Runnable eviction = () -> {
+            counts.asMap().keySet().removeIf(key -> key.entity().equals(entity));
+            log.debug("Evicted cached counts for {}", entity.getSimpleName());
+        };
+
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private record CountKey(Class<?> entity, Object filter) {
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.flowershop.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.dto.ProductDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class ProductCatalogCache {
+
+    private final Cache<Long, ProductDto> productsById;
+    private final Cache<String, ProductDto> productsByName;
+    private final Cache<PageKey, Slice<ProductDto>> pages;
+
+    public ProductCatalogCache(@Value("${catalog.cache.max-size:10000}") long maxSize,
+                               @Value("${catalog.cache.pages-max-size:1000}") long pagesMaxSize,
+                               @Value("${catalog.cache.ttl:10m}") Duration ttl) {
+        this.productsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.productsByName = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(pagesMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public ProductDto getById(long id, Supplier<ProductDto> loader) {
+        return productsById.get(id, key -> loader.get());
+    }
+
+    public ProductDto getByName(String name, Supplier<ProductDto> loader) {
+        return productsByName.get(name, key -> loader.get());
+    }
+
+    public Page<ProductDto> getPage(String categoryName, Pageable pageable, Supplier<Page<ProductDto>> loader) {
+        if (pageable.isUnpaged()) {
+            return loader.get();
+        }
+        return (Page<ProductDto>) pages.get(pageKey(categoryName, pageable, true), k -> loader.get());
+    }
+
+    // Cached apart from pages so a slice is never handed out where a total is expected
+    public Slice<ProductDto> getSlice(String categoryName, Pageable pageable, Supplier<Slice<ProductDto>> loader) {
+        if (pageable.isUnpaged()) {
+            return loader.get();
+        }
+        return pages.get(pageKey(categoryName, pageable, false), k -> loader.get());
+    }
+
+    private static PageKey pageKey(String categoryName, Pageable pageable, boolean counted) {
+        return new PageKey(normalize(categoryName),
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                pageable.getSort().toString(),
+                counted);
+    }
+
+    /**
+     * Evicts a product by id and name together with the listing pages it can appear on.
+     * The eviction is repeated after commit so a concurrent read cannot re-cache the old state.
+     */
+    public void evictProduct(Long id, String name, String categoryName) {
+        evictNowAndAfterCommit(() -> {
+            if (id != null) {
+                productsById.invalidate(id);
+            }
+            if (name != null) {
+                productsByName.invalidate(name);
+            }
+            String category = normalize(categoryName);
+            pages.asMap().keySet().removeIf(key -> key.category() == null || key.category().equals(category));
+            log.debug("Evicted product id={}, name={}, category={} from catalog cache", id, name, categoryName);
+        });
+    }
+
+    /**
+     * Clears every cached product and page. Used when a category is renamed or deleted, since
+     * cached products carry the category name and cached pages are keyed by it.
+     */
+    public void evictAll() {
+        evictNowAndAfterCommit(() -> {
+            productsById.invalidateAll();
+            productsByName.invalidateAll();
+            pages.invalidateAll();
+            log.debug("Cleared catalog cache");
+        });
+    }
+
+    private static void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static String normalize(String categoryName) {
+        return categoryName == null ? null : categoryName.toLowerCase(Locale.ROOT);
+    }
+
+    private record PageKey(String category, int page, int size, String sort, boolean counted) {
+    }
+}
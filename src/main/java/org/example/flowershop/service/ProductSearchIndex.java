@@ -0,0 +1,510 @@
+package org.example.flowershop.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.dto.CategoryDto;
+import org.example.flowershop.dto.CategoryFacetDto;
+import org.example.flowershop.dto.FacetedProductsDto;
+import org.example.flowershop.dto.PriceBucketDto;
+import org.example.flowershop.dto.ProductDto;
+import org.example.flowershop.dto.ProductFilterRequest;
+import org.example.flowershop.mapper.ProductMapper;
+import org.example.flowershop.model.entity.Product;
+import org.example.flowershop.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, description and category name.
+ * <p>
+ * Every query term must match a product for it to be returned. A term matches an indexed word exactly,
+ * as a prefix, or, when neither finds anything, within one or two edits, and the weaker kinds of match
+ * score lower. The index is built once the application is ready and then kept current by
+ * {@link org.example.flowershop.service.impl.ProductServiceImpl}, which applies each change after commit.
+ * <p>
+ * It also answers faceted filtering. Product counts per category and per price bucket over the whole
+ * catalog are maintained with every change, so the unfiltered sidebar is served without a scan; a filtered
+ * request counts its facets in the same single pass that selects the products.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final double FUZZY_FACTOR = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildBatchSize;
+    private final double[] priceBucketBounds;
+    private final Timer searchTimer;
+    private final Timer filterTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductDto> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Integer> productsPerCategory = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final int[] productsPerPriceBucket;
+    // Changes made while a rebuild is loading, replayed over the loaded snapshot; empty value means deleted
+    private Map<Long, Optional<ProductDto>> changesDuringRebuild;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              ProductMapper productMapper,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${catalog.search.rebuild-batch-size:1000}") int rebuildBatchSize,
+                              @Value("${catalog.facets.price-buckets:0,25,50,100,200}") double[] priceBucketBounds) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.priceBucketBounds = priceBucketBounds.clone();
+        Arrays.sort(this.priceBucketBounds);
+        this.productsPerPriceBucket = new int[this.priceBucketBounds.length];
+        this.searchTimer = Timer.builder("catalog.search")
+                .description("Time spent answering a product search from the in-memory index")
+                .register(meterRegistry);
+        this.filterTimer = Timer.builder("catalog.filter")
+                .description("Time spent filtering products and counting facets from the in-memory index")
+                .register(meterRegistry);
+        meterRegistry.gauge("catalog.search.documents", documents, Map::size);
+    }
+
+    public List<ProductDto> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        int resultSize = Math.clamp(limit, 1, MAX_LIMIT);
+
+        return searchTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                return rank(terms, resultSize);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    public FacetedProductsDto filter(ProductFilterRequest filter) {
+        List<String> terms = tokenize(filter.getQ());
+        Set<Long> categoryIds = filter.getCategoryIds() == null ? Set.of() : Set.copyOf(filter.getCategoryIds());
+        int size = filter.getSize() > 0 ? Math.min(filter.getSize(), MAX_LIMIT) : DEFAULT_LIMIT;
+        int page = Math.max(0, filter.getPage());
+
+        return filterTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                return facet(terms, categoryIds, filter.getMinPrice(), filter.getMaxPrice(), page, size);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Adds or replaces a product. Inside a transaction the change is applied after commit,
+     * so a rolled back save never becomes searchable.
+     */
+    public void index(ProductDto product) {
+        afterCommit(() -> apply(product.getId(), Optional.of(product)));
+    }
+
+    public void remove(long productId) {
+        afterCommit(() -> apply(productId, Optional.empty()));
+    }
+
+    // Category names are indexed with each product, so a rename re-indexes that category's products
+    public void renameCategory(long categoryId, String name) {
+        afterCommit(() -> {
+            List<ProductDto> renamed = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                for (ProductDto product : documents.values()) {
+                    if (product.getCategory() != null && product.getCategory().getId() == categoryId) {
+                        CategoryDto category = new CategoryDto(categoryId, name);
+                        renamed.add(product.toBuilder().category(category).build());
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            renamed.forEach(product -> apply(product.getId(), Optional.of(product)));
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ProductDto> loaded = new ArrayList<>();
+        try {
+            loadAll(loaded);
+        } catch (RuntimeException e) {
+            // Live changes were applied all along, so the previous index is still consistent
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            productsPerCategory.clear();
+            categoryNames.clear();
+            Arrays.fill(productsPerPriceBucket, 0);
+            loaded.forEach(this::add);
+            changesDuringRebuild.forEach(this::replace);
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Indexed {} products ({} terms) for search in {} ms",
+                documents.size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Keyset batches, each in its own short transaction, so the persistence context never holds the whole catalog
+    private void loadAll(List<ProductDto> loaded) {
+        Limit limit = Limit.of(rebuildBatchSize);
+        List<Product> batch = List.of();
+        do {
+            Product last = batch.isEmpty() ? null : batch.getLast();
+            batch = transactionTemplate.execute(status -> {
+                List<Product> products = last == null
+                        ? productRepository.findFirstOrderByNameAndId(limit)
+                        : productRepository.findAfterOrderByNameAndId(last.getName(), last.getId(), limit);
+                products.forEach(product -> loaded.add(productMapper.toDto(product)));
+                return products;
+            });
+        } while (batch != null && batch.size() == rebuildBatchSize);
+    }
+
+    private void apply(long productId, Optional<ProductDto> product) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(productId, product);
+            }
+            replace(productId, product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(long productId, Optional<ProductDto> product) {
+        ProductDto previous = documents.remove(productId);
+        if (previous != null) {
+            for (String term : fieldWeights(previous).keySet()) {
+                Map<Long, Integer> posting = postings.get(term);
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+            countFacets(previous, -1);
+        }
+        product.ifPresent(this::add);
+    }
+
+    private void add(ProductDto product) {
+        documents.put(product.getId(), product);
+        fieldWeights(product).forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(product.getId(), weight));
+        countFacets(product, 1);
+    }
+
+    private void countFacets(ProductDto product, int delta) {
+        productsPerPriceBucket[priceBucket(product.getPrice())] += delta;
+        CategoryDto category = product.getCategory();
+        if (category == null) {
+            return;
+        }
+        Integer count = productsPerCategory.merge(category.getId(), delta, Integer::sum);
+        if (count == 0) {
+            productsPerCategory.remove(category.getId());
+            categoryNames.remove(category.getId());
+        } else if (delta > 0) {
+            categoryNames.put(category.getId(), category.getName());
+        }
+    }
+
+    private static Map<String, Integer> fieldWeights(ProductDto product) {
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, product.getName(), NAME_WEIGHT);
+        addField(weights, product.getCategory() != null ? product.getCategory().getName() : null, CATEGORY_WEIGHT);
+        addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        return weights;
+    }
+
+    private static void addField(Map<String, Integer> weights, String text, int weight) {
+        for (String term : new LinkedHashSet<>(tokenize(text))) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private List<ProductDto> rank(List<String> terms, int limit) {
+        Map<Long, Double> scores = match(terms);
+        return top(scores.keySet(), scores::get, limit);
+    }
+
+    private FacetedProductsDto facet(List<String> terms, Set<Long> categoryIds,
+                                     Double minPrice, Double maxPrice, int page, int size) {
+        Map<Long, Double> scores = terms.isEmpty() ? null : match(terms);
+        boolean unfiltered = scores == null && categoryIds.isEmpty() && minPrice == null && maxPrice == null;
+
+        Collection<Long> matches;
+        Map<Long, Integer> categoryCounts;
+        int[] priceBucketCounts;
+        if (unfiltered) {
+            matches = documents.keySet();
+            categoryCounts = productsPerCategory;
+            priceBucketCounts = productsPerPriceBucket;
+        } else {
+            matches = new ArrayList<>();
+            categoryCounts = new HashMap<>();
+            priceBucketCounts = new int[priceBucketBounds.length];
+
+            // One pass; each facet is counted under every filter but its own, so it shows what picking another value gives
+            for (Long id : scores != null ? scores.keySet() : documents.keySet()) {
+                ProductDto product = documents.get(id);
+                CategoryDto category = product.getCategory();
+                boolean inCategory = categoryIds.isEmpty() || category != null && categoryIds.contains(category.getId());
+                boolean inPriceRange = (minPrice == null || product.getPrice() >= minPrice)
+                        && (maxPrice == null || product.getPrice() <= maxPrice);
+
+                if (inPriceRange && category != null) {
+                    categoryCounts.merge(category.getId(), 1, Integer::sum);
+                }
+                if (inCategory) {
+                    priceBucketCounts[priceBucket(product.getPrice())]++;
+                }
+                if (inCategory && inPriceRange) {
+                    matches.add(id);
+                }
+            }
+        }
+
+        int from = (int) Math.min((long) page * size, matches.size());
+        int to = (int) Math.min((long) from + size, matches.size());
+        List<ProductDto> ranked = top(matches, scores != null ? scores::get : id -> 0, to);
+
+        return FacetedProductsDto.builder()
+                .content(ranked.subList(from, ranked.size()))
+                .totalElements(matches.size())
+                .categories(categoryFacets(categoryCounts))
+                .priceBuckets(priceBucketFacets(priceBucketCounts))
+                .build();
+    }
+
+    private List<CategoryFacetDto> categoryFacets(Map<Long, Integer> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> new CategoryFacetDto(entry.getKey(), categoryNames.get(entry.getKey()), entry.getValue()))
+                .sorted(Comparator.comparingLong(CategoryFacetDto::getCount).reversed()
+                        .thenComparing(CategoryFacetDto::getName, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    private List<PriceBucketDto> priceBucketFacets(int[] counts) {
+        List<PriceBucketDto> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            Double upper = i + 1 < priceBucketBounds.length ? priceBucketBounds[i + 1] : null;
+            buckets.add(new PriceBucketDto(priceBucketBounds[i], upper, counts[i]));
+        }
+        return buckets;
+    }
+
+    // Prices below the first bound are counted in the first bucket
+    private int priceBucket(double price) {
+        int index = Arrays.binarySearch(priceBucketBounds, price);
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    // Bounded heap holding the current top results, worst first, so large match sets are never fully sorted
+    private List<ProductDto> top(Collection<Long> ids, ToDoubleFunction<Long> relevance, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Comparator<Long> worstFirst = Comparator.comparingDouble(relevance)
+                .thenComparing(id -> documents.get(id).getName(),
+                        Comparator.nullsLast(Comparator.<String>naturalOrder()).reversed())
+                .thenComparing(Comparator.reverseOrder());
+        PriorityQueue<Long> top = new PriorityQueue<>(limit + 1, worstFirst);
+        for (Long id : ids) {
+            top.offer(id);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<ProductDto> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            results.add(documents.get(top.poll()));
+        }
+        return results.reversed();
+    }
+
+    // Products matching every term with their summed score; empty when any term matches nothing
+    private Map<Long, Double> match(List<String> terms) {
+        Map<Long, Double> scores = null;
+        for (String term : new LinkedHashSet<>(terms)) {
+            Map<Long, Double> termScores = score(term);
+            if (scores != null) {
+                Map<Long, Double> previous = scores;
+                termScores.keySet().retainAll(previous.keySet());
+                termScores.replaceAll((id, score) -> score + previous.get(id));
+            }
+            scores = termScores;
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    // Best score per product for one query term; rarer words weigh more, as in tf-idf
+    private Map<Long, Double> score(String term) {
+        Map<String, Double> matches = new LinkedHashMap<>();
+
+        if (postings.containsKey(term)) {
+            matches.put(term, 1.0);
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            for (String word : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                matches.put(word, PREFIX_FACTOR);
+            }
+        }
+        if (matches.isEmpty() && term.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = term.length() >= 8 ? 2 : 1;
+            // Typos rarely hit the first letter, so only words sharing it are compared
+            String first = term.substring(0, 1);
+            for (String word : postings.subMap(first, true, first + Character.MAX_VALUE, false).keySet()) {
+                if (Math.abs(word.length() - term.length()) <= maxEdits
+                        && withinEdits(term, word, maxEdits)) {
+                    matches.put(word, FUZZY_FACTOR);
+                }
+            }
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        matches.forEach((word, factor) -> {
+            Map<Long, Integer> posting = postings.get(word);
+            double idf = Math.log(1 + (double) documents.size() / posting.size());
+            posting.forEach((id, weight) -> scores.merge(id, weight * factor * idf, Math::max));
+        });
+        return scores;
+    }
+
+    /**
+     * Optimal string alignment distance with an early exit once every cell in a row exceeds the bound.
+     */
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        int[] previousRow = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            row[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(row[j] + 1, current[j - 1] + 1), row[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, previousRow[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = previousRow;
+            previousRow = row;
+            row = current;
+            current = recycled;
+        }
+        return row[b.length()] <= maxEdits;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String term : SEPARATORS.split(folded)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
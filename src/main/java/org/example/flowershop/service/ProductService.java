@@ -1,16 +1,39 @@
 package org.example.flowershop.service;
 
+import org.example.flowershop.dto.CursorPage;
+import org.example.flowershop.dto.FacetedProductsDto;
+import org.example.flowershop.dto.ProductFilterRequest;
 import org.example.flowershop.dto.ProductDto;
 import org.example.flowershop.dto.SaveProductRequest;
+import org.example.flowershop.dto.SuggestionDto;
+import org.example.flowershop.model.enums.ImageVariant;
 import org.springframework.data.domain.Page;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 public interface ProductService {
     Page<ProductDto> findAll(Pageable pageable);
 
     Page<ProductDto> findByCategory(String categoryName, Pageable pageable);
 
+    Slice<ProductDto> findSlice(Pageable pageable);
+
+    Slice<ProductDto> findSliceByCategory(String categoryName, Pageable pageable);
+
+    CursorPage<ProductDto> scroll(String cursor, int size);
+
+    List<ProductDto> search(String query, int limit);
+
+    List<SuggestionDto> suggest(String prefix, int limit);
+
+    FacetedProductsDto filter(ProductFilterRequest filter);
+
+    CursorPage<ProductDto> scrollByCategory(String categoryName, String cursor, int size);
+
     ProductDto findById(Long id);
 
     ProductDto findByName(String name);
@@ -21,5 +44,7 @@ public interface ProductService {
 
     void deleteById(Long productId, long userId);
 
-    byte[] getImage(String imageName);
+    Resource getImage(String imageName);
+
+    Resource getImage(String imageName, ImageVariant variant);
 }
@@ -0,0 +1,216 @@
+package org.example.flowershop.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.dto.SuggestionDto;
+import org.example.flowershop.model.enums.SuggestionType;
+import org.example.flowershop.repository.CategoryRepository;
+import org.example.flowershop.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over product and category names, held as a sorted array searched by binary search.
+ * <p>
+ * Each name is indexed under its full text and under every later word, so "rose" also finds
+ * "White rose". Lookups read an immutable snapshot without locking and allocate only the result
+ * list. Catalog changes request a rebuild after commit; rebuilds run on a single background
+ * thread and requests that arrive while one is pending are folded into it.
+ */
+@Component
+@Slf4j
+public class ProductSuggestIndex {
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 20;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new SuggestionDto[0]);
+
+    public ProductSuggestIndex(ProductRepository productRepository,
+                               CategoryRepository categoryRepository,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("catalog-suggest").factory()
+                : Thread.ofPlatform().name("catalog-suggest").daemon().factory();
+        this.rebuilder = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        String query = prefix.strip();
+        Snapshot current = snapshot;
+        int max = Math.clamp(limit, 1, MAX_LIMIT);
+
+        List<SuggestionDto> suggestions = new ArrayList<>(max);
+        for (int i = lowerBound(current.keys(), query);
+             i < current.keys().length && suggestions.size() < max && startsWith(current.keys()[i], query);
+             i++) {
+            SuggestionDto suggestion = current.suggestions()[i];
+            // A name can sit under several of its words; report it once
+            if (!suggestions.contains(suggestion)) {
+                suggestions.add(suggestion);
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Schedules a rebuild once the current transaction commits, or right away outside one.
+     */
+    public void requestRebuild() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRebuild();
+                }
+            });
+        } else {
+            scheduleRebuild();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuilder.execute(() -> {
+                // Cleared before reading, so a change committed during the rebuild schedules another one
+                rebuildPending.set(false);
+                rebuild();
+            });
+        } catch (RejectedExecutionException e) {
+            rebuildPending.set(false);
+            log.warn("Suggestion index rebuild rejected, executor is shut down");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        try {
+            List<String> productNames = productRepository.findAllNames();
+            List<String> categoryNames = categoryRepository.findAllNames();
+            snapshot = Snapshot.of(productNames, categoryNames);
+            log.info("Built suggestion index with {} entries in {} ms",
+                    snapshot.keys().length, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild suggestion index, keeping the previous one", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdown();
+        try {
+            if (!rebuilder.awaitTermination(5, TimeUnit.SECONDS)) {
+                rebuilder.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            rebuilder.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // First index whose key is not less than the prefix, compared as if the prefix were lower case
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(keys[mid], prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(String key, String prefix) {
+        int length = Math.min(key.length(), prefix.length());
+        for (int i = 0; i < length; i++) {
+            int difference = key.charAt(i) - Character.toLowerCase(prefix.charAt(i));
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return key.length() - prefix.length();
+    }
+
+    private static boolean startsWith(String key, String prefix) {
+        if (key.length() < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (key.charAt(i) != Character.toLowerCase(prefix.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Entry(String key, SuggestionDto suggestion) {
+    }
+
+    private record Snapshot(String[] keys, SuggestionDto[] suggestions) {
+
+        static Snapshot of(List<String> productNames, List<String> categoryNames) {
+            List<Entry> entries = new ArrayList<>();
+            addAll(entries, categoryNames, SuggestionType.CATEGORY);
+            addAll(entries, productNames, SuggestionType.PRODUCT);
+            entries.sort(Comparator.comparing(Entry::key)
+                    .thenComparing(entry -> entry.suggestion().getType()));
+
+            String[] keys = new String[entries.size()];
+            SuggestionDto[] suggestions = new SuggestionDto[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                keys[i] = entries.get(i).key();
+                suggestions[i] = entries.get(i).suggestion();
+            }
+            return new Snapshot(keys, suggestions);
+        }
+
+        private static void addAll(List<Entry> entries, List<String> names, SuggestionType type) {
+            for (String name : names) {
+                if (name == null || name.isBlank()) {
+                    continue;
+                }
+                String text = name.strip();
+                String key = text.toLowerCase(Locale.ROOT);
+                SuggestionDto suggestion = new SuggestionDto(text, type);
+
+                entries.add(new Entry(key, suggestion));
+                for (int i = 1; i < key.length(); i++) {
+                    if (Character.isWhitespace(key.charAt(i - 1)) && !Character.isWhitespace(key.charAt(i))) {
+                        entries.add(new Entry(key.substring(i), suggestion));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -32,22 +32,28 @@ public class CartItemServiceImpl implements CartItemService {
 
 
     @Override
-    public List<CartItem> getCartByUser(long userId, String sortBy) {
+    @Transactional(readOnly = true)
+    public List<CartDto> getCartByUser(long userId, String sortBy) {
         log.info("Finding cart items for userId: {} with sorting by: {}", userId, sortBy);
 
         Sort sort = resolveSort(sortBy);
 
-        return cartItemRepository.findAllByUserId(userId, sort);
+        return cartItemRepository.findViewsByUserId(userId, sort)
+                .stream()
+                .map(cartItemMapper::toDto)
+                .toList();
     }
 
+    // Properties are the aliases selected by CartItemRepository.findViewsByUserId
     private Sort resolveSort(String sortBy) {
         return switch (sortBy) {
-            case "productName" -> Sort.by("product.name").ascending();
-            case "price" -> Sort.by("product.price").ascending();
-            case "createdAt" -> Sort.by("createdAt").descending();
+            case "productName" -> Sort.by("productName").ascending();
+            case "price" -> Sort.by("productPrice").ascending();
+            // Cart items carry no timestamp; ids are assigned in insertion order
+            case "createdAt" -> Sort.by("id").descending();
             default -> {
                 log.warn("Invalid sortBy '{}', using default 'productName'", sortBy);
-                yield Sort.by("product.name").ascending();
+                yield Sort.by("productName").ascending();
             }
         };
     }
@@ -11,8 +11,13 @@ import org.example.flowershop.mapper.CategoryMapper;
 import org.example.flowershop.model.entity.Category;
 import org.example.flowershop.repository.CategoryRepository;
 import org.example.flowershop.service.CategoryService;
+import org.example.flowershop.service.PageCountCache;
+import org.example.flowershop.service.ProductCatalogCache;
+import org.example.flowershop.service.ProductSearchIndex;
+import org.example.flowershop.service.ProductSuggestIndex;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,17 +29,30 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final PageCountCache pageCountCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCatalogCache productCatalogCache;
+    private final ProductSuggestIndex productSuggestIndex;
 
     @Override
     public Page<CategoryDto> findAll(Pageable pageable) {
         log.info("Fetching categories with pagination: page={}, size={}, sort={}",
                 pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
-        Page<CategoryDto> page = categoryRepository.findAll(pageable)
+        Page<CategoryDto> page = pageCountCache.toPage(Category.class, null,
+                        categoryRepository.findAllBy(pageable), categoryRepository::count)
                 .map(categoryMapper::toDto);
         log.info("Fetched {} categories", page.getNumberOfElements());
         return page;
     }
 
+    @Override
+    public Slice<CategoryDto> findSlice(Pageable pageable) {
+        log.info("Fetching categories without total count: page={}, size={}, sort={}",
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        return categoryRepository.findAllBy(pageable)
+                .map(categoryMapper::toDto);
+    }
+
 
     @Override
     public CategoryDto findById(long id) {
@@ -72,6 +90,8 @@ public class CategoryServiceImpl implements CategoryService {
         }
         Category category = categoryMapper.toEntity(request);
         Category saved = categoryRepository.save(category);
+        pageCountCache.evict(Category.class);
+        productSuggestIndex.requestRebuild();
 
         log.info("Category saved successfully id={}, name={}", saved.getId(), saved.getName());
 
@@ -94,6 +114,9 @@ public class CategoryServiceImpl implements CategoryService {
                 });
         category.setName(request.getName());
         Category updated = categoryRepository.save(category);
+        productSearchIndex.renameCategory(updated.getId(), updated.getName());
+        productCatalogCache.evictAll();
+        productSuggestIndex.requestRebuild();
         log.info("Category updated successfully id={}, name={}", updated.getId(), updated.getName());
 
         return categoryMapper.toDto(updated);
@@ -116,6 +139,9 @@ public class CategoryServiceImpl implements CategoryService {
             );
         }
         categoryRepository.deleteById(id);
+        pageCountCache.evict(Category.class);
+        productCatalogCache.evictAll();
+        productSuggestIndex.requestRebuild();
         log.info("Category with id={} deleted successfully", id);
     }
 }
\ No newline at end of file
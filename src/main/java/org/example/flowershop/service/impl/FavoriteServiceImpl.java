@@ -44,14 +44,15 @@ public class FavoriteServiceImpl implements FavoriteService {
         String safeSortBy = (sortBy == null || sortBy.isBlank()) ? "productName" : sortBy;
 
         String sortField = switch (safeSortBy) {
-            case "productName", "product.name" -> "product.name";
-            case "price", "product.price" -> "product.price";
-            default -> "product.name";
+            case "productName", "product.name" -> "productName";
+            case "price", "product.price" -> "productPrice";
+            default -> "productName";
         };
 
+        // Properties are the aliases selected by FavoriteRepository.findViewsByUserId
         Sort sort = Sort.by(sortField).ascending();
 
-        return favoriteRepository.findAllByUserId(userId, sort)
+        return favoriteRepository.findViewsByUserId(userId, sort)
                 .stream()
                 .map(favoriteMapper::toDto)
                 .toList();
@@ -0,0 +1,239 @@
+package org.example.flowershop.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.exception.ImageNotFoundException;
+import org.example.flowershop.exception.ImageStorageException;
+import org.example.flowershop.model.enums.ImageVariant;
+import org.example.flowershop.repository.ProductRepository;
+import org.example.flowershop.service.ImageStorageService;
+import org.example.flowershop.service.ImageVariantGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Stores product images on disk under the SHA-256 of their content, so identical uploads share one file.
+ * The extension follows the content type detected from the bytes, or the declared one when the bytes are not
+ * recognised, never the client's file name, so the same image uploaded as {@code rose.jpg} and
+ * {@code ROSE.JPEG} gets one name and one ETag.
+ * A file is referenced by every product whose {@code image_name} points at it and is deleted
+ * by {@link #deleteUnreferenced()} once no product does.
+ * <p>
+ * An image file's modification time is served as its {@code Last-Modified}, so it is never touched
+ * after the file is written. Reusing a stored image instead touches a marker under
+ * {@value #REUSE_MARKERS}, which keeps the sweep away from the image for the same minimum age.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageStorageServiceImpl implements ImageStorageService {
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp",
+            "image/bmp", ".bmp");
+    private static final String REUSE_MARKERS = ".reused";
+
+    private final ProductRepository productRepository;
+    private final ImageVariantGenerator imageVariantGenerator;
+
+    @Value("${images.upload.path}")
+    String imageUploadPath;
+
+    @Value("${images.gc.min-age:1h}")
+    Duration gcMinAge;
+
+    @Override
+    public String store(MultipartFile image) {
+        try {
+            Path uploadDir = Path.of(imageUploadPath);
+            Files.createDirectories(uploadDir);
+
+            Path tmp = Files.createTempFile(uploadDir, "upload", ".tmp");
+            try {
+                // The hash is computed while the upload is copied, the file is never read twice
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream in = new DigestInputStream(image.getInputStream(), digest)) {
+                    Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                String imageName = HexFormat.of().formatHex(digest.digest()) + extension(tmp, image.getContentType());
+                Path imagePath = uploadDir.resolve(imageName);
+
+                if (Files.exists(imagePath)) {
+                    // The marker keeps the sweep from collecting it before the product row commits
+                    Path marker = Files.createDirectories(uploadDir.resolve(REUSE_MARKERS)).resolve(imageName);
+                    Files.write(marker, new byte[0]);
+                    Files.setLastModifiedTime(marker, FileTime.from(Instant.now()));
+                    if (variantsMissing(imagePath)) {
+                        // An earlier generation may have failed or been turned away by the full queue
+                        imageVariantGenerator.generateAsync(imagePath);
+                    }
+                    log.info("Image {} is already stored, reusing it", imageName);
+                    return imageName;
+                }
+
+                Files.move(tmp, imagePath, StandardCopyOption.ATOMIC_MOVE);
+                imageVariantGenerator.generateAsync(imagePath);
+
+                log.info("Stored image {}", imageName);
+                return imageName;
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } catch (IOException e) {
+            log.error("Failed to save image", e);
+            throw new ImageStorageException("Failed to save image", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public Resource load(String imageName, ImageVariant variant) {
+        Path basePath = Path.of(imageUploadPath).toAbsolutePath().normalize();
+        Path imagePath = basePath.resolve(imageName).normalize();
+
+        if (!imagePath.startsWith(basePath)) {
+            log.warn("Path traversal attempt detected: {}", imageName);
+            throw new ImageNotFoundException("Invalid image path");
+        }
+
+        if (!Files.exists(imagePath)) {
+            log.warn("Image not found: {}", imageName);
+            throw new ImageNotFoundException("Image not found");
+        }
+
+        if (variant != null) {
+            Path variantPath = imagePath.resolveSibling(variant.fileName(imagePath.getFileName().toString()));
+            if (Files.exists(variantPath)) {
+                log.info("Resolved image: {}, variant: {}", imageName, variant);
+                return new FileSystemResource(variantPath);
+            }
+            // Variants are generated in the background, the original stands in until they are written
+            log.info("Variant {} of image {} is not available yet, serving original", variant, imageName);
+        }
+
+        // The file is streamed to the response by the message converter, never buffered whole
+        log.info("Resolved image: {}", imageName);
+        return new FileSystemResource(imagePath);
+    }
+
+    @Override
+    public int deleteUnreferenced() {
+        Path uploadDir = Path.of(imageUploadPath);
+        if (!Files.isDirectory(uploadDir)) {
+            return 0;
+        }
+
+        Set<String> referenced = productRepository.findAllImageNames();
+        // Files younger than the minimum age may belong to a product that is not committed yet
+        Instant cutoff = Instant.now().minus(gcMinAge);
+        Path markerDir = uploadDir.resolve(REUSE_MARKERS);
+        int deleted = 0;
+
+        try (Stream<Path> stream = Files.list(uploadDir)) {
+            List<Path> files = stream.filter(Files::isRegularFile).toList();
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String originalName = originalName(fileName);
+                if (referenced.contains(originalName)
+                        || modifiedAfter(file, cutoff)
+                        || modifiedAfter(markerDir.resolve(originalName), cutoff)) {
+                    continue;
+                }
+                if (Files.deleteIfExists(file)) {
+                    log.debug("Deleted unreferenced image {}", fileName);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to sweep unreferenced images", e);
+        }
+
+        deleteExpiredMarkers(markerDir, cutoff);
+        return deleted;
+    }
+
+    private static void deleteExpiredMarkers(Path markerDir, Instant cutoff) {
+        if (!Files.isDirectory(markerDir)) {
+            return;
+        }
+        try (Stream<Path> stream = Files.list(markerDir)) {
+            for (Path marker : stream.toList()) {
+                if (!modifiedAfter(marker, cutoff)) {
+                    Files.deleteIfExists(marker);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to sweep image reuse markers", e);
+        }
+    }
+
+    private static boolean modifiedAfter(Path path, Instant cutoff) throws IOException {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isAfter(cutoff);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private static String originalName(String fileName) {
+        for (ImageVariant variant : ImageVariant.values()) {
+            String prefix = variant.fileName("");
+            if (fileName.startsWith(prefix)) {
+                return fileName.substring(prefix.length());
+            }
+        }
+        return fileName;
+    }
+
+    private static boolean variantsMissing(Path imagePath) {
+        String imageName = imagePath.getFileName().toString();
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!Files.exists(imagePath.resolveSibling(variant.fileName(imageName)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String extension(Path content, String declaredType) throws IOException {
+        String detectedType;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(content))) {
+            detectedType = URLConnection.guessContentTypeFromStream(in);
+        }
+        String type = detectedType != null ? detectedType : declaredType;
+        if (type == null) {
+            return "";
+        }
+        // Parameters and case are dropped, e.g. "IMAGE/JPEG; name=rose"
+        String baseType = type.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return EXTENSIONS.getOrDefault(baseType, "");
+    }
+}
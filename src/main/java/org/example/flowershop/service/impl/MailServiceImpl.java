@@ -5,18 +5,23 @@ import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.flowershop.exception.MailSendingException;
+import org.example.flowershop.model.entity.OutboxMail;
 import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.MailStatus;
+import org.example.flowershop.model.enums.MailType;
+import org.example.flowershop.repository.OutboxMailRepository;
+import org.example.flowershop.service.MailBatchSender;
 import org.example.flowershop.service.MailService;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
+import org.example.flowershop.service.MailTemplateRenderer;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 
 @Service
@@ -25,48 +30,64 @@ import java.nio.charset.StandardCharsets;
 public class MailServiceImpl implements MailService {
 
     private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final MailTemplateRenderer mailTemplateRenderer;
+    private final OutboxMailRepository outboxMailRepository;
+    private final MailBatchSender mailBatchSender;
 
     @Override
-    public void sendMail(String to, String subject, String text) {
-        log.info("Sending mail to {} with subject {}", to, subject);
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
+    public CompletableFuture<Void> sendMail(String to, String subject, String text) {
+        log.info("Queueing mail to {} with subject {}", to, subject);
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
 
         try {
-            mailSender.send(message);
-            log.info("Mail successfully sent to {}", to);
-        } catch (MailException e) {
-            log.error("Failed to send email to {} with subject {}", to, subject, e);
-            throw e;
+            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, false, StandardCharsets.UTF_8.name());
+            message.setTo(to);
+            message.setSubject(subject);
+            message.setText(text);
+        } catch (MessagingException e) {
+            log.error("Failed to build email to {} with subject {}", to, subject, e);
+            throw new MailSendingException("Failed to send email", e);
         }
+
+        return mailBatchSender.send(mimeMessage);
+    }
+
+    // Joins the caller's transaction so the mail is only queued if the user is committed
+    @Override
+    @Transactional
+    public void enqueueWelcomeMail(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxMailRepository.save(OutboxMail.builder()
+                .type(MailType.WELCOME)
+                .recipient(user.getEmail())
+                .recipientName(user.getUsername())
+                .status(MailStatus.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+        log.info("Welcome mail queued for {}", user.getEmail());
     }
 
     @Override
-    @Async
-    public void sendWelcomeMail(User user) {
-        log.info("Sending welcome mail to {}", user.getEmail());
+    public CompletableFuture<Void> sendWelcomeMail(String to, String username) {
+        log.info("Queueing welcome mail to {}", to);
 
         Context ctx = new Context();
-        ctx.setVariable("user", user.getUsername());
+        ctx.setVariable("user", username);
 
-        String htmlContent = templateEngine.process("mail/welcome.html", ctx);
+        String htmlContent = mailTemplateRenderer.render("mail/welcome.html", ctx);
         MimeMessage mimeMessage = mailSender.createMimeMessage();
 
         try {
             MimeMessageHelper message = new MimeMessageHelper(mimeMessage, true, StandardCharsets.UTF_8.name());
             message.setSubject("Welcome flower shop");
-            message.setTo(user.getEmail());
+            message.setTo(to);
             message.setText(htmlContent, true);
-
-            mailSender.send(mimeMessage);
-            log.info("Mail successfully sent to {}", user.getEmail());
-
-        } catch (MessagingException | MailException e) {
-            log.error("Failed to send welcome mail to {}", user.getEmail(), e);
+        } catch (MessagingException e) {
+            log.error("Failed to build welcome mail to {}", to, e);
             throw new MailSendingException("Failed to send welcome email", e);
         }
+
+        return mailBatchSender.send(mimeMessage);
     }
-}
\ No newline at end of file
+}
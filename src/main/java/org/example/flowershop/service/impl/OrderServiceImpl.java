@@ -2,8 +2,10 @@ package org.example.flowershop.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.dto.CursorPage;
 import org.example.flowershop.dto.OrderDto;
 import org.example.flowershop.dto.SaveOrderRequest;
+import org.example.flowershop.exception.InvalidCursorException;
 import org.example.flowershop.exception.OrderNotFoundException;
 import org.example.flowershop.exception.ProductNotFoundException;
 import org.example.flowershop.exception.UserNotFoundException;
@@ -17,8 +19,13 @@ import org.example.flowershop.repository.OrderRepository;
 import org.example.flowershop.repository.ProductRepository;
 import org.example.flowershop.repository.UserRepository;
 import org.example.flowershop.service.OrderService;
+import org.example.flowershop.service.PageCountCache;
+import org.example.flowershop.util.KeysetCursor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -27,6 +34,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Service
@@ -38,19 +46,56 @@ public class OrderServiceImpl implements OrderService {
     private final OrderMapper orderMapper;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final PageCountCache pageCountCache;
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderDto> findAll(Pageable pageable) {
         log.info("Finding all orders with pagination and sorting by: {}", pageable.getSort());
 
-        Page<OrderDto> ordersPage = orderRepository.findAll(pageable)
+        Page<OrderDto> ordersPage = pageCountCache.toPage(Order.class, null,
+                        orderRepository.findAllBy(pageable), orderRepository::count)
                 .map(orderMapper::toDto);
 
         log.info("Successfully retrieved {} orders", ordersPage.getNumberOfElements());
         return ordersPage;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<OrderDto> findSlice(Pageable pageable) {
+        log.info("Finding orders without total count, sorted by: {}", pageable.getSort());
+
+        return orderRepository.findAllBy(pageable)
+                .map(orderMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> scrollAll(String cursor, int size) {
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        log.info("Scrolling all orders before {} with size {}", before, pageSize);
+
+        List<Order> orders = before == null
+                ? orderRepository.findFirstOrderByOrderDateDescAndIdDesc(limit)
+                : orderRepository.findBeforeOrderByOrderDateDescAndIdDesc(parseOrderDate(before), before.id(), limit);
+
+        return CursorPage.of(orders, pageSize,
+                order -> new KeysetCursor(order.getOrderDate().toString(), order.getId()),
+                orderMapper::toDto);
+    }
+
+    private static LocalDateTime parseOrderDate(KeysetCursor cursor) {
+        try {
+            return LocalDateTime.parse(cursor.key());
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public OrderDto findByIdForUser(long id, User currentUser) {
@@ -113,6 +158,7 @@ public class OrderServiceImpl implements OrderService {
                 Status.NEW);
 
         Order savedOrder = orderRepository.save(order);
+        pageCountCache.evict(Order.class);
 
         log.info("Order saved successfully with id={} for userId={}",
                 savedOrder.getId(),
@@ -132,14 +178,19 @@ public class OrderServiceImpl implements OrderService {
         };
 
 
-        List<Order> orders = switch (sort) {
-            case "price" -> orderRepository.findAllByUserIdOrderByPriceAsc(userId);
-            case "status" -> orderRepository.findAllByUserIdOrderByStatusAsc(userId);
-            default -> orderRepository.findAllByUserIdOrderByOrderDateDesc(userId);
+        Sort ordering = switch (sort) {
+            case "price" -> Sort.by("price").ascending();
+            case "status" -> Sort.by("status").ascending();
+            default -> Sort.by("orderDate").descending();
         };
 
+        List<OrderDto> orders = orderRepository.findViewsByUserId(userId, ordering)
+                .stream()
+                .map(orderMapper::toDto)
+                .toList();
+
         log.info("Found {} orders for userId={}", orders.size(), userId);
-        return orderMapper.toDtoList(orders);
+        return orders;
     }
     @Override
     public OrderDto update(long id, SaveOrderRequest request, User currentUser) {
@@ -2,12 +2,13 @@ package org.example.flowershop.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.flowershop.dto.CursorPage;
+import org.example.flowershop.dto.FacetedProductsDto;
+import org.example.flowershop.dto.ProductFilterRequest;
 import org.example.flowershop.dto.ProductDto;
 import org.example.flowershop.dto.SaveProductRequest;
+import org.example.flowershop.dto.SuggestionDto;
 import org.example.flowershop.exception.CategoryNotFoundException;
-import org.example.flowershop.exception.ImageNotFoundException;
-import org.example.flowershop.exception.ImageReadException;
-import org.example.flowershop.exception.ImageStorageException;
 import org.example.flowershop.exception.ProductAlreadyExistsException;
 import org.example.flowershop.exception.ProductHasRelationsException;
 import org.example.flowershop.exception.ProductNotFoundException;
@@ -16,24 +17,31 @@ import org.example.flowershop.mapper.ProductMapper;
 import org.example.flowershop.model.entity.Category;
 import org.example.flowershop.model.entity.Product;
 import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.ImageVariant;
 import org.example.flowershop.model.enums.UserType;
 import org.example.flowershop.repository.CategoryRepository;
 import org.example.flowershop.repository.ProductRepository;
 import org.example.flowershop.repository.UserRepository;
+import org.example.flowershop.service.ProductCatalogCache;
+import org.example.flowershop.service.ImageStorageService;
+import org.example.flowershop.service.PageCountCache;
+import org.example.flowershop.service.ProductSearchIndex;
 import org.example.flowershop.service.ProductService;
-import org.springframework.beans.factory.annotation.Value;
+import org.example.flowershop.service.ProductSuggestIndex;
+import org.example.flowershop.util.KeysetCursor;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -44,9 +52,11 @@ public class ProductServiceImpl implements ProductService {
     private final ProductMapper productMapper;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
-
-    @Value("${images.upload.path}")
-    String imageUploadPath;
+    private final ProductCatalogCache productCatalogCache;
+    private final PageCountCache pageCountCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ImageStorageService imageStorageService;
 
 
     @Override
@@ -89,7 +99,7 @@ public class ProductServiceImpl implements ProductService {
         product.setCategory(category);
 
         if (image != null && !image.isEmpty()) {
-            String imageName = saveImage(image);
+            String imageName = imageStorageService.store(image);
             product.setImage(imageName);
             log.info("Product image saved with name={}", imageName);
         } else {
@@ -97,29 +107,18 @@ public class ProductServiceImpl implements ProductService {
         }
 
         Product saved = productRepository.save(product);
+        productCatalogCache.evictProduct(saved.getId(), saved.getName(), category.getName());
+        pageCountCache.evict(Product.class);
 
         log.info("Product successfully created id={} by userId={}", saved.getId(), userId);
 
-        return productMapper.toDto(saved);
+        ProductDto productDto = productMapper.toDto(saved);
+        productSearchIndex.index(productDto);
+        productSuggestIndex.requestRebuild();
+        return productDto;
     }
 
 
-    private String saveImage(MultipartFile image) {
-        try {
-            String imageName = UUID.randomUUID() + "_" + image.getOriginalFilename();
-            Path uploadDir = Path.of(imageUploadPath);
-            Files.createDirectories(uploadDir);
-
-            Path imagePath = uploadDir.resolve(imageName);
-            Files.copy(image.getInputStream(), imagePath, StandardCopyOption.REPLACE_EXISTING);
-
-            return imageName;
-        } catch (IOException e) {
-            log.error("Failed to save image", e);
-            throw new ImageStorageException("Failed to save image", e);
-        }
-    }
-
     @Override
     public ProductDto update(Long productId, SaveProductRequest request, MultipartFile image, long userId) {
 
@@ -158,6 +157,9 @@ public class ProductServiceImpl implements ProductService {
 
         log.info("Updating product fields for productId={}", productId);
 
+        String previousName = product.getName();
+        String previousCategoryName = product.getCategory() != null ? product.getCategory().getName() : null;
+
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
@@ -165,13 +167,21 @@ public class ProductServiceImpl implements ProductService {
 
         if (image != null && !image.isEmpty()) {
             log.info("Updating image for productId={}", productId);
-            product.setImage(saveImage(image));
+            product.setImage(imageStorageService.store(image));
         }
 
         Product saved = productRepository.save(product);
+        productCatalogCache.evictProduct(productId, previousName, previousCategoryName);
+        productCatalogCache.evictProduct(productId, saved.getName(), category.getName());
+        pageCountCache.evict(Product.class);
 
         log.info("Product updated successfully id={}", saved.getId());
-        return productMapper.toDto(saved);
+        ProductDto productDto = productMapper.toDto(saved);
+        productSearchIndex.index(productDto);
+        if (!Objects.equals(previousName, saved.getName())) {
+            productSuggestIndex.requestRebuild();
+        }
+        return productDto;
     }
 
 
@@ -205,90 +215,168 @@ public class ProductServiceImpl implements ProductService {
         }
 
         productRepository.delete(product);
+        productCatalogCache.evictProduct(productId, product.getName(),
+                product.getCategory() != null ? product.getCategory().getName() : null);
+        pageCountCache.evict(Product.class);
+        productSearchIndex.remove(productId);
+        productSuggestIndex.requestRebuild();
         log.info("Product with id: {} successfully deleted", productId);
     }
 
 
     @Override
-    public byte[] getImage(String imageName) {
-        log.info("Fetching image with name: {}", imageName);
-
-        Path basePath = Path.of(imageUploadPath).toAbsolutePath().normalize();
-        Path imagePath = basePath.resolve(imageName).normalize();
-
-        if (!imagePath.startsWith(basePath)) {
-            log.warn("Path traversal attempt detected: {}", imageName);
-            throw new ImageNotFoundException("Invalid image path");
-        }
-
-        if (!Files.exists(imagePath)) {
-            log.warn("Image not found: {}", imageName);
-            throw new ImageNotFoundException("Image not found");
-        }
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Resource getImage(String imageName) {
+        return getImage(imageName, null);
+    }
 
-        try {
-            byte[] imageBytes = Files.readAllBytes(imagePath);
-            log.info("Successfully fetched image: {}", imageName);
-            return imageBytes;
-        } catch (IOException e) {
-            log.error("Failed to read image file: {}", imageName, e);
-            throw new ImageReadException("Could not read image file", e);
-        }
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Resource getImage(String imageName, ImageVariant variant) {
+        log.info("Fetching image with name: {}, variant: {}", imageName, variant);
+        return imageStorageService.load(imageName, variant);
     }
 
 
+    // Catalog reads join a transaction only when loading, so cache hits never borrow a connection
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ProductDto> findAll(Pageable pageable) {
         log.info("Fetching products with pagination and sorting. Pageable: {}", pageable);
 
-        Page<Product> productsPage = productRepository.findAll(pageable);
-
-        Page<ProductDto> productDto = productsPage.map(productMapper::toDto);
+        Page<ProductDto> productDto = productCatalogCache.getPage(null, pageable, () ->
+                pageCountCache.toPage(Product.class, null,
+                                productRepository.findViewsBy(pageable), productRepository::count)
+                        .map(productMapper::toDto));
 
         log.info("Successfully fetched {} products with pagination and sorting.", productDto.getTotalElements());
         return productDto;
     }
 
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<ProductDto> findByCategory(String categoryName, Pageable pageable) {
-        Category category = categoryRepository.findByNameIgnoreCase(categoryName)
+        return productCatalogCache.getPage(categoryName, pageable, () -> {
+            Category category = findCategory(categoryName);
+
+            return pageCountCache.toPage(Product.class, category.getId(),
+                            productRepository.findSliceByCategory(category, pageable),
+                            () -> productRepository.countByCategory(category))
+                    .map(productMapper::toDto);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Slice<ProductDto> findSlice(Pageable pageable) {
+        log.info("Fetching products without total count. Pageable: {}", pageable);
+
+        return productCatalogCache.getSlice(null, pageable, () ->
+                productRepository.findViewsBy(pageable).map(productMapper::toDto));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Slice<ProductDto> findSliceByCategory(String categoryName, Pageable pageable) {
+        return productCatalogCache.getSlice(categoryName, pageable, () ->
+                productRepository.findSliceByCategory(findCategory(categoryName), pageable)
+                        .map(productMapper::toDto));
+    }
+
+    private Category findCategory(String categoryName) {
+        return categoryRepository.findByNameIgnoreCase(categoryName)
                 .orElseThrow(() -> new CategoryNotFoundException("Category not found with name " + categoryName));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> scroll(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        log.info("Scrolling products after {} with size {}", after, pageSize);
+
+        List<Product> products = after == null
+                ? productRepository.findFirstOrderByNameAndId(limit)
+                : productRepository.findAfterOrderByNameAndId(after.key(), after.id(), limit);
 
-        Page<ProductDto> products = productRepository
-                .findAllByCategory(category, pageable)
-                .map(productMapper::toDto);
+        return CursorPage.of(products, pageSize,
+                product -> new KeysetCursor(product.getName(), product.getId()),
+                productMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> scrollByCategory(String categoryName, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = CursorPage.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
 
+        Category category = findCategory(categoryName);
+
+        List<Product> products = after == null
+                ? productRepository.findFirstByCategoryOrderByNameAndId(category, limit)
+                : productRepository.findAfterByCategoryOrderByNameAndId(category, after.key(), after.id(), limit);
+
+        return CursorPage.of(products, pageSize,
+                product -> new KeysetCursor(product.getName(), product.getId()),
+                productMapper::toDto);
+    }
+
+    // Served from the in-memory index only, so a search never touches the database
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductDto> search(String query, int limit) {
+        List<ProductDto> products = productSearchIndex.search(query, limit);
+        log.info("Search for '{}' matched {} products", query, products.size());
         return products;
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FacetedProductsDto filter(ProductFilterRequest filter) {
+        FacetedProductsDto result = productSearchIndex.filter(filter);
+        log.info("Filter {} matched {} products", filter, result.getTotalElements());
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return productSuggestIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ProductDto findById(Long id) {
         log.info("Fetching product with id: {}", id);
 
-        ProductDto product = productMapper.toDto(
+        ProductDto product = productCatalogCache.getById(id, () -> productMapper.toDto(
                 productRepository.findById(id)
                         .orElseThrow(() -> {
                             log.error("Product not found with id: {}", id);
 
                             return new ProductNotFoundException("Product not found with id " + id);
                         })
-        );
+        ));
 
         log.info("Successfully fetched product with id: {}", id);
         return product;
     }
 
     @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ProductDto findByName(String name) {
         log.info("Fetching product with name: {}", name);
 
-        ProductDto product = productMapper.toDto(
+        ProductDto product = productCatalogCache.getByName(name, () -> productMapper.toDto(
                 productRepository.findByName(name)
                         .orElseThrow(() -> {
                             log.error("Product not found with name: {}", name);
                             return new ProductNotFoundException("Product not found with name: " + name);
                         })
-        );
+        ));
         log.info("Successfully fetched product with name: {}", name);
         return product;
     }
@@ -7,7 +7,9 @@ import org.example.flowershop.dto.SaveUserRequest;
 import org.example.flowershop.dto.UpdateUserRequest;
 import org.example.flowershop.dto.UserAuthResponse;
 import org.example.flowershop.dto.UserDto;
+import org.example.flowershop.event.UserAccountChangedEvent;
 import org.example.flowershop.exception.EmailAlreadyExistsException;
+import org.example.flowershop.exception.TooManyRequestsException;
 import org.example.flowershop.exception.UserHasRelationsException;
 import org.example.flowershop.exception.UserNotFoundException;
 import org.example.flowershop.exception.UsernameAlreadyExistsException;
@@ -19,18 +21,24 @@ import org.example.flowershop.repository.FavoriteRepository;
 import org.example.flowershop.repository.OrderRepository;
 import org.example.flowershop.repository.UserRepository;
 import org.example.flowershop.service.MailService;
+import org.example.flowershop.service.PasswordHashingService;
 import org.example.flowershop.service.UserService;
 import org.example.flowershop.util.JwtTokenUtil;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -43,38 +51,47 @@ public class UserServiceImpl implements UserService {
     private final CartItemRepository cartItemRepository;
     private final FavoriteRepository favoriteRepository;
     private final UserMapper userMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final TransactionTemplate transactionTemplate;
     private final MailService mailService;
     private final JwtTokenUtil tokenUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
+    // Hashing runs before any transaction starts, so no connection is held for the duration of the hash.
+    // The uniqueness checks run first so duplicate sign-ups never take a slot on the hashing pool
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDto registerUser(SaveUserRequest request) {
         log.info("Registering user email={}", request.getEmail());
-        userRepository.findByEmail(request.getEmail())
-                .ifPresent(u -> {
-                    log.warn("Registration failed: email already exists: {}", request.getEmail());
-                    throw new EmailAlreadyExistsException("Email already exists");
-                });
 
-        userRepository.findByUsername(request.getUsername())
-                .ifPresent(u -> {
-                    log.warn("Registration failed: username already exists: {}", request.getUsername());
-                    throw new UsernameAlreadyExistsException("Username already exists");
-                });
+        checkRegistrationIsUnique(request);
 
-        User user = userMapper.toEntity(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        String encodedPassword = passwordHashingService.encode(request.getPassword());
 
-        User savedUser = userRepository.save(user);
+        return transactionTemplate.execute(status -> {
+            // Repeated in the transaction for a sign-up that raced this one during the hash
+            checkRegistrationIsUnique(request);
 
-        try {
-            mailService.sendWelcomeMail(savedUser);
-        } catch (Exception e) {
-            log.error("Failed to send welcome mail to userId={}", savedUser.getId(), e);
-        }
+            User user = userMapper.toEntity(request);
+            user.setPassword(encodedPassword);
+
+            User savedUser = userRepository.save(user);
+            mailService.enqueueWelcomeMail(savedUser);
+
+            log.info("Registration completed successfully for user id={}", savedUser.getId());
+            return userMapper.toDto(savedUser);
+        });
+    }
 
-        log.info("Registration completed successfully for user id={}", savedUser.getId());
-        return userMapper.toDto(savedUser);
+    private void checkRegistrationIsUnique(SaveUserRequest request) {
+        if (userRepository.existsByEmail(request.getEmail())) {
+            log.warn("Registration failed: email already exists: {}", request.getEmail());
+            throw new EmailAlreadyExistsException("Email already exists");
+        }
+        if (userRepository.existsByUsername(request.getUsername())) {
+            log.warn("Registration failed: username already exists: {}", request.getUsername());
+            throw new UsernameAlreadyExistsException("Username already exists");
+        }
     }
 
     @Override
@@ -94,16 +111,21 @@ public class UserServiceImpl implements UserService {
             throw new UsernameAlreadyExistsException("Username already exists");
         }
 
+        String previousEmail = user.getEmail();
+
         if (request.getEmail() != null) user.setEmail(request.getEmail());
         if (request.getName() != null) user.setName(request.getName());
         if (request.getSurname() != null) user.setSurname(request.getSurname());
         if (request.getUsername() != null) user.setUsername(request.getUsername());
 
+        eventPublisher.publishEvent(new UserAccountChangedEvent(id, emails(previousEmail, user.getEmail())));
+
         log.info("User updated successfully id={}", id);
         return userMapper.toDto(user);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserAuthResponse login(LoginUserRequest request) {
         log.info("Login attempt for email={}", request.getEmail());
 
@@ -113,15 +135,17 @@ public class UserServiceImpl implements UserService {
                     return new BadCredentialsException("Invalid email or password");
                 });
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             log.warn("Login failed: invalid password for email={}", request.getEmail());
             throw new BadCredentialsException("Invalid email or password");
         }
 
         log.info("Login successful for user id={}", user.getId());
 
+        upgradePasswordHash(user, request.getPassword());
+
         return UserAuthResponse.builder()
-                .token(tokenUtil.generateToken(user.getEmail()))
+                .token(tokenUtil.generateToken(user))
                 .name(user.getName())
                 .surname(user.getSurname())
                 .userId(user.getId())
@@ -131,6 +155,32 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
+    /**
+     * Re-hashes the password with the current encoder settings when the stored hash is weaker.
+     * The update only applies if the hash is unchanged, and a failed upgrade never fails the login.
+     */
+    private void upgradePasswordHash(User user, String rawPassword) {
+        String previous = user.getPassword();
+        if (!passwordHashingService.upgradeEncoding(previous)) {
+            return;
+        }
+
+        String upgraded;
+        try {
+            upgraded = passwordHashingService.encode(rawPassword);
+        } catch (TooManyRequestsException e) {
+            log.debug("Skipping password hash upgrade for user id={}: {}", user.getId(), e.getMessage());
+            return;
+        }
+
+        Integer updated = transactionTemplate.execute(status ->
+                userRepository.updatePassword(user.getId(), previous, upgraded));
+        if (updated != null && updated > 0) {
+            user.setPassword(upgraded);
+            log.info("Upgraded password hash for user id={}", user.getId());
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<UserDto> getAllUsers(String sort) {
@@ -199,6 +249,13 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(id, emails(user.getEmail())));
         log.info("User deleted successfully id={}", id);
     }
+
+    private static Set<String> emails(String... emails) {
+        return Arrays.stream(emails)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package org.example.flowershop.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.UserType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -11,10 +15,14 @@ import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenUtil {
+    static final String USER_ID_CLAIM = "uid";
+    static final String USERNAME_CLAIM = "username";
+    static final String USER_TYPE_CLAIM = "userType";
 
     @Value("${jwt.secret}")
     private String secret;
@@ -22,6 +30,27 @@ public class JwtTokenUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        // Decoding the key and building the parser once keeps per-request verification to the signature check
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        parser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+    }
+
+    /**
+     * Parses the token once, verifying its signature and expiration.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims verifyToken(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
     }
@@ -37,22 +66,40 @@ public class JwtTokenUtil {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verifyToken(token);
     }
 
-
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    public String generateToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(USERNAME_CLAIM, user.getUsername());
+        claims.put(USER_TYPE_CLAIM, user.getUserType() != null ? user.getUserType().name() : null);
+        return doGenerateToken(claims, user.getEmail());
     }
 
-    public String generateToken(String email) {
-        Map<String, Object> claims = new HashMap<>();
-        return doGenerateToken(claims, email);
+    /**
+     * Rebuilds the user a token was issued for from its claims. The returned user is not loaded
+     * from the database and only carries id, email, username and type.
+     */
+    public Optional<User> getUserFromClaims(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String userType = claims.get(USER_TYPE_CLAIM, String.class);
+
+        // Tokens issued before these claims existed can only be resolved through the database
+        if (userId == null || userType == null || claims.getSubject() == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(User.builder()
+                    .id(userId)
+                    .email(claims.getSubject())
+                    .username(claims.get(USERNAME_CLAIM, String.class))
+                    .userType(UserType.valueOf(userType))
+                    .build());
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     private String doGenerateToken(Map<String, Object> claims, String subject) {
@@ -64,23 +111,18 @@ public class JwtTokenUtil {
                 .subject(subject)
                 .issuedAt(createdDate)
                 .expiration(expirationDate)
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
 
     public Boolean validateToken(String token, String email) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(email)
-                && !isTokenExpired(token));
+        final Claims claims = verifyToken(token);
+        return (claims.getSubject().equals(email)
+                && !claims.getExpiration().before(new Date()));
     }
 
     private Date calculateExpirationDate(Date createdDate) {
         return new Date(createdDate.getTime() + expiration * 1000);
     }
-
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package org.example.flowershop.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a running instance with a fixed number of concurrent clients and prints throughput and latency
+ * percentiles, to compare {@code spring.threads.virtual.enabled} on and off against the same database.
+ * <p>
+ * Start the application with {@code VIRTUAL_THREADS_ENABLED=true} or {@code false}, then run
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.flowershop.benchmark.EndpointLoadGenerator
+ * -Dexec.args="http://localhost:8080/products 2000 60"}.
+ * Arguments are the URL, the number of clients and the duration in seconds.
+ */
+public class EndpointLoadGenerator {
+
+    public static void main(String[] args) throws InterruptedException {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/products");
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 60);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        // One virtual thread per client keeps the generator itself from being the bottleneck
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                long[] samples = new long[1 << 16];
+                latencies.add(samples);
+                executor.submit(() -> runClient(httpClient, request, deadline, samples, errors));
+            }
+        }
+
+        long[] all = latencies.stream()
+                .flatMapToLong(samples -> Arrays.stream(samples, 1, (int) samples[0] + 1))
+                .sorted()
+                .toArray();
+
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d%n",
+                clients, duration.toSeconds(), all.length, errors.get());
+        System.out.printf("throughput=%.1f req/s%n", all.length / (double) duration.toSeconds());
+        System.out.printf("p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                percentile(all, 0.50), percentile(all, 0.99), all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+    }
+
+    // samples[0] holds the count, later entries the latencies in nanoseconds
+    private static void runClient(HttpClient httpClient, HttpRequest request, long deadline,
+                                  long[] samples, AtomicLong errors) {
+        while (System.nanoTime() < deadline && samples[0] < samples.length - 1) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+                samples[(int) ++samples[0]] = System.nanoTime() - start;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.flowershop.benchmark;
+
+import org.example.flowershop.config.MailConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares welcome mail render throughput with {@code mail.templates.cacheable} on and off.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.flowershop.benchmark.MailTemplateBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateBenchmark {
+
+    @Param({"true", "false"})
+    private boolean cacheable;
+
+    private TemplateEngine templateEngine;
+    private Context context;
+
+    @Setup
+    public void setUp() {
+        templateEngine = new MailConfig().emailTemplateEngine(cacheable);
+        context = new Context();
+        context.setVariable("user", "rose");
+    }
+
+    @Benchmark
+    public String renderWelcome() {
+        return templateEngine.process("mail/welcome.html", context);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MailTemplateBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
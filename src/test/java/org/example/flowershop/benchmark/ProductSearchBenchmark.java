@@ -0,0 +1,96 @@
+package org.example.flowershop.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.flowershop.dto.CategoryDto;
+import org.example.flowershop.dto.FacetedProductsDto;
+import org.example.flowershop.dto.ProductDto;
+import org.example.flowershop.dto.ProductFilterRequest;
+import org.example.flowershop.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures search and faceted filter latency of {@link ProductSearchIndex} over a synthetic
+ * 100k-product catalog for exact, prefix and misspelled queries.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.flowershop.benchmark.ProductSearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductSearchBenchmark {
+    private static final String[] FLOWERS = {"rose", "tulip", "lily", "orchid", "peony", "daisy", "carnation",
+            "sunflower", "lavender", "gerbera", "hydrangea", "chrysanthemum", "freesia", "iris", "magnolia"};
+    private static final String[] COLORS = {"white", "red", "pink", "yellow", "purple", "orange", "blue", "cream"};
+    private static final String[] CATEGORIES = {"Bouquets", "Wedding", "Potted plants", "Seasonal", "Gift boxes"};
+
+    @Param({"100000"})
+    private int products;
+
+    @Param({"pink peony", "sunfl", "hydrangia bouqets"})
+    private String query;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new ProductSearchIndex(null, null, null, new SimpleMeterRegistry(), 1000,
+                new double[]{0, 25, 50, 100, 200});
+        Random random = new Random(42);
+        for (int i = 1; i <= products; i++) {
+            String flower = FLOWERS[random.nextInt(FLOWERS.length)];
+            String color = COLORS[random.nextInt(COLORS.length)];
+            int category = random.nextInt(CATEGORIES.length);
+            index.index(new ProductDto(i, color + " " + flower + " " + i,
+                    "Hand-tied " + flower + " arrangement in " + color + " with seasonal greenery",
+                    10 + random.nextInt(90), null, null, new CategoryDto(category, CATEGORIES[category])));
+        }
+    }
+
+    @Benchmark
+    public List<ProductDto> search() {
+        return index.search(query, ProductSearchIndex.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public FacetedProductsDto filterWithFacets() {
+        return index.filter(ProductFilterRequest.builder()
+                .q(query)
+                .categoryIds(List.of(1L, 2L))
+                .minPrice(20.0)
+                .maxPrice(60.0)
+                .build());
+    }
+
+    @Benchmark
+    public FacetedProductsDto unfilteredFacets() {
+        return index.filter(new ProductFilterRequest());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.flowershop.benchmark;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Floods {@code POST /users/register} with a mix of new and duplicate sign-ups and reports how long
+ * requests waited for a database connection and how many were turned away with 429. Compares builds
+ * that hash inside or outside the registration transaction, and before or after the uniqueness checks.
+ * <p>
+ * Start the build under test against a database that already holds the user
+ * {@code duplicate@mail.com}, then run {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.example.flowershop.benchmark.RegistrationLoadGenerator
+ * -Dexec.args="http://localhost:8080 <admin token> 200 60 0.5"}.
+ * Arguments are the base URL, an admin bearer token for the actuator, the number of clients, the
+ * duration in seconds and the share of duplicate sign-ups. Repeat with the build from before the
+ * change and compare the pool wait figures.
+ */
+public class RegistrationLoadGenerator {
+    private static final String DUPLICATE_EMAIL = "duplicate@mail.com";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        URI baseUri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080");
+        String adminToken = args.length > 1 ? args[1] : "";
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 60);
+        double duplicateShare = args.length > 4 ? Double.parseDouble(args[4]) : 0.5;
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        Map<String, Double> acquireBefore = metric(httpClient, baseUri, adminToken, "hikaricp.connections.acquire");
+
+        AtomicLong tooManyRequests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong maxPending = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> samplePending(httpClient, baseUri, adminToken, deadline, maxPending));
+            for (int i = 0; i < clients; i++) {
+                long[] samples = new long[1 << 16];
+                latencies.add(samples);
+                executor.submit(() -> runClient(httpClient, baseUri, deadline, duplicateShare,
+                        samples, tooManyRequests, errors));
+            }
+        }
+
+        Map<String, Double> acquireAfter = metric(httpClient, baseUri, adminToken, "hikaricp.connections.acquire");
+        double acquires = acquireAfter.get("COUNT") - acquireBefore.get("COUNT");
+        double acquireSeconds = acquireAfter.get("TOTAL_TIME") - acquireBefore.get("TOTAL_TIME");
+
+        long[] all = latencies.stream()
+                .flatMapToLong(samples -> Arrays.stream(samples, 1, (int) samples[0] + 1))
+                .sorted()
+                .toArray();
+
+        System.out.printf("clients=%d duration=%ds duplicates=%.0f%% answered=%d 429=%d errors=%d%n",
+                clients, duration.toSeconds(), duplicateShare * 100, all.length, tooManyRequests.get(), errors.get());
+        System.out.printf("p50=%.1f ms p99=%.1f ms%n", percentile(all, 0.50), percentile(all, 0.99));
+        System.out.printf("pool: acquires=%.0f mean wait=%.2f ms max wait=%.1f ms max pending=%d%n",
+                acquires, acquires == 0 ? 0 : acquireSeconds * 1000 / acquires,
+                acquireAfter.get("MAX") * 1000, maxPending.get());
+    }
+
+    // samples[0] holds the count, later entries the latencies in nanoseconds; 409 for a duplicate counts as answered
+    private static void runClient(HttpClient httpClient, URI baseUri, long deadline, double duplicateShare,
+                                  long[] samples, AtomicLong tooManyRequests, AtomicLong errors) {
+        while (System.nanoTime() < deadline && samples[0] < samples.length - 1) {
+            String suffix = UUID.randomUUID().toString();
+            boolean duplicate = ThreadLocalRandom.current().nextDouble() < duplicateShare;
+            String body = """
+                    {"name":"load","surname":"test","username":"%s","email":"%s","password":"password123"}
+                    """.formatted("load-" + suffix, duplicate ? DUPLICATE_EMAIL : "load-" + suffix + "@mail.com");
+            HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/users/register"))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+
+            long start = System.nanoTime();
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 429) {
+                    tooManyRequests.incrementAndGet();
+                } else if (status >= 500) {
+                    errors.incrementAndGet();
+                } else {
+                    samples[(int) ++samples[0]] = System.nanoTime() - start;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private static void samplePending(HttpClient httpClient, URI baseUri, String adminToken,
+                                      long deadline, AtomicLong maxPending) {
+        while (System.nanoTime() < deadline) {
+            try {
+                long pending = metric(httpClient, baseUri, adminToken, "hikaricp.connections.pending")
+                        .get("VALUE").longValue();
+                maxPending.accumulateAndGet(pending, Math::max);
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // A missed sample only lowers the reported maximum
+            }
+        }
+    }
+
+    private static Map<String, Double> metric(HttpClient httpClient, URI baseUri, String adminToken, String name)
+            throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/actuator/metrics/" + name))
+                .header("Authorization", "Bearer " + adminToken)
+                .GET()
+                .build();
+        JsonNode root = objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body());
+
+        Map<String, Double> measurements = new HashMap<>();
+        for (JsonNode measurement : root.get("measurements")) {
+            measurements.put(measurement.get("statistic").asString(), measurement.get("value").asDouble());
+        }
+        return measurements;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
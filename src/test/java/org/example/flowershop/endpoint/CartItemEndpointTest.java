@@ -3,7 +3,6 @@ package org.example.flowershop.endpoint;
 import org.example.flowershop.dto.CartDto;
 import org.example.flowershop.dto.SaveCartItemRequest;
 import org.example.flowershop.mapper.CartItemMapper;
-import org.example.flowershop.model.entity.CartItem;
 import org.example.flowershop.model.entity.Category;
 import org.example.flowershop.model.entity.Product;
 import org.example.flowershop.model.entity.User;
@@ -63,12 +62,6 @@ class CartItemEndpointTest {
 
     @Test
     void getUserCartItems_shouldReturn200_whenAuthenticated() throws Exception {
-        CartItem cartItem = CartItem.builder()
-                .id(1L)
-                .user(testUser)
-                .product(testProduct)
-                .build();
-
         CartDto cartDto = new CartDto(1L, 1L, "rose", "white rose", 100, "rose.png");
 
         CurrentUser currentUserDetails = new CurrentUser(testUser);
@@ -77,10 +70,7 @@ class CartItemEndpointTest {
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
         when(cartItemServiceImpl.getCartByUser(testUser.getId(), "productName"))
-                .thenReturn(List.of(cartItem));
-
-        when(cartItemMapper.toDto(cartItem))
-                .thenReturn(cartDto);
+                .thenReturn(List.of(cartDto));
 
         mockMvc.perform(get("/cart-items"))
                 .andExpect(status().isOk());
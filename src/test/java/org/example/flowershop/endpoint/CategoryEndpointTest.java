@@ -13,9 +13,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -29,6 +29,7 @@ import java.util.List;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -65,10 +66,10 @@ class CategoryEndpointTest {
         categoryDto.setId(1L);
         categoryDto.setName("Wedding flowers");
 
-        Page<CategoryDto> page = new PageImpl<>(List.of(categoryDto));
+        Slice<CategoryDto> slice = new SliceImpl<>(List.of(categoryDto));
 
-        when(categoryService.findAll(any(Pageable.class)))
-                .thenReturn(page);
+        when(categoryService.findSlice(any(Pageable.class)))
+                .thenReturn(slice);
 
         mockMvc.perform(get("/categories")
                         .param("page", "0")
@@ -79,6 +80,8 @@ class CategoryEndpointTest {
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].name").value("Wedding flowers"));
+
+        verify(categoryService, never()).findAll(any(Pageable.class));
     }
 
 
@@ -0,0 +1,177 @@
+package org.example.flowershop.endpoint;
+
+import org.example.flowershop.model.entity.CartItem;
+import org.example.flowershop.model.entity.Category;
+import org.example.flowershop.model.entity.Favorite;
+import org.example.flowershop.model.entity.Order;
+import org.example.flowershop.model.entity.Product;
+import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.Status;
+import org.example.flowershop.model.enums.UserType;
+import org.example.flowershop.repository.CartItemRepository;
+import org.example.flowershop.repository.CategoryRepository;
+import org.example.flowershop.repository.FavoriteRepository;
+import org.example.flowershop.repository.OrderRepository;
+import org.example.flowershop.repository.ProductRepository;
+import org.example.flowershop.repository.UserRepository;
+import org.example.flowershop.security.CurrentUser;
+import org.example.flowershop.sql.SqlBudget;
+import org.example.flowershop.sql.SqlRecordingDataSourceConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Serves the list endpoints from real services over an embedded PostgreSQL and fails when a
+ * request issues more statements than its budget, which is how N+1 regressions show up. Every
+ * row points at its own product and category, so a per-row lazy load would exceed the budget.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlRecordingDataSourceConfig.class)
+@SqlBudget(maxStatements = 1, maxRows = ListEndpointSqlBudgetTest.ROWS)
+class ListEndpointSqlBudgetTest {
+    static final int ROWS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("Jon")
+                .surname("Smith")
+                .username("jon")
+                .email("jon@mail.com")
+                .password("password")
+                .userType(UserType.ADMIN)
+                .build());
+
+        for (int i = 0; i < ROWS; i++) {
+            Category category = categoryRepository.save(Category.builder().name("category " + i).build());
+            Product product = productRepository.save(Product.builder()
+                    .name("product " + i)
+                    .description("description")
+                    .price(10 + i)
+                    .image("image.jpg")
+                    .category(category)
+                    .user(user)
+                    .build());
+            orderRepository.save(Order.builder()
+                    .user(user)
+                    .product(product)
+                    .price(product.getPrice())
+                    .status(Status.NEW)
+                    .address("address")
+                    .orderDate(LocalDateTime.now().minusMinutes(i))
+                    .quantity(1)
+                    .build());
+            cartItemRepository.save(CartItem.builder().user(user).product(product).build());
+            favoriteRepository.save(Favorite.builder().user(user).product(product).build());
+        }
+
+        CurrentUser currentUser = new CurrentUser(user);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                currentUser, null, currentUser.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        orderRepository.deleteAllInBatch();
+        cartItemRepository.deleteAllInBatch();
+        favoriteRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getUserOrders() throws Exception {
+        mockMvc.perform(get("/orders").param("sortBy", "price"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROWS)));
+    }
+
+    @Test
+    void getAllOrdersWithoutCount() throws Exception {
+        mockMvc.perform(get("/orders/all").param("count", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(ROWS)));
+    }
+
+    @Test
+    void scrollAllOrders() throws Exception {
+        mockMvc.perform(get("/orders/all/scroll"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getUserCartItems() throws Exception {
+        mockMvc.perform(get("/cart-items"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROWS)));
+    }
+
+    @Test
+    @SqlBudget(maxStatements = 2, maxRows = ROWS + 1)
+    void getMyFavorites() throws Exception {
+        mockMvc.perform(get("/favorites"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROWS)));
+    }
+
+    @Test
+    @SqlBudget(maxStatements = 2, maxRows = ROWS + 1)
+    void getAllProducts() throws Exception {
+        mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(ROWS)));
+    }
+
+    @Test
+    void scrollProducts() throws Exception {
+        mockMvc.perform(get("/products/scroll"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @SqlBudget(maxStatements = 2, maxRows = 2)
+    void scrollProductsByCategory() throws Exception {
+        mockMvc.perform(get("/products/by-category/scroll").param("category", "category 3"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllCategories() throws Exception {
+        mockMvc.perform(get("/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(ROWS)));
+    }
+}
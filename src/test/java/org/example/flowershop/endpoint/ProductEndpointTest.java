@@ -1,23 +1,36 @@
 package org.example.flowershop.endpoint;
 
 import org.example.flowershop.dto.CategoryDto;
+import org.example.flowershop.dto.CategoryFacetDto;
+import org.example.flowershop.dto.CursorPage;
+import org.example.flowershop.dto.FacetedProductsDto;
+import org.example.flowershop.dto.PriceBucketDto;
 import org.example.flowershop.dto.ProductDto;
+import org.example.flowershop.dto.ProductFilterRequest;
 import org.example.flowershop.dto.SaveProductRequest;
+import org.example.flowershop.dto.SuggestionDto;
 import org.example.flowershop.exception.CategoryNotFoundException;
+import org.example.flowershop.exception.ImageNotFoundException;
+import org.example.flowershop.exception.InvalidCursorException;
 import org.example.flowershop.exception.ProductNotFoundException;
 import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.ImageVariant;
+import org.example.flowershop.model.enums.SuggestionType;
 import org.example.flowershop.model.enums.UserType;
 import org.example.flowershop.security.CurrentUser;
 import org.example.flowershop.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.access.AccessDeniedException;
@@ -27,16 +40,19 @@ import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
-import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -44,6 +60,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -97,6 +114,113 @@ class ProductEndpointTest {
                 .andExpect(jsonPath("$.content[0].category.name").value(categoryDto.getName()));
     }
 
+    @Test
+    void getAllProducts_withoutCount_shouldReturnSliceWithoutTotal() throws Exception {
+        ProductDto productDto = new ProductDto();
+        productDto.setId(1);
+        productDto.setName("test");
+
+        when(productService.findSlice(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(productDto), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/products").param("count", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(productService, never()).findAll(any(Pageable.class));
+    }
+
+
+    @Test
+    void searchProducts_shouldReturnRankedMatches() throws Exception {
+        ProductDto productDto = new ProductDto();
+        productDto.setId(1);
+        productDto.setName("white rose");
+
+        when(productService.search("whte rose", 5)).thenReturn(List.of(productDto));
+
+        mockMvc.perform(get("/products/search").param("q", "whte rose").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("white rose"));
+    }
+
+    @Test
+    void suggest_shouldReturnSuggestionsForPrefix() throws Exception {
+        when(productService.suggest("ro", 10)).thenReturn(List.of(
+                new SuggestionDto("Roses", SuggestionType.CATEGORY),
+                new SuggestionDto("Rose bouquet", SuggestionType.PRODUCT)));
+
+        mockMvc.perform(get("/products/suggest").param("prefix", "ro"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].text").value("Roses"))
+                .andExpect(jsonPath("$[0].type").value("CATEGORY"));
+    }
+
+    @Test
+    void filterProducts_shouldReturnProductsWithFacets() throws Exception {
+        FacetedProductsDto facets = FacetedProductsDto.builder()
+                .content(List.of())
+                .totalElements(0)
+                .categories(List.of(new CategoryFacetDto(1, "Roses", 4)))
+                .priceBuckets(List.of(new PriceBucketDto(0, 25.0, 4)))
+                .build();
+        ProductFilterRequest expected = ProductFilterRequest.builder()
+                .q("rose")
+                .categoryIds(List.of(1L, 2L))
+                .minPrice(10.0)
+                .build();
+        when(productService.filter(expected)).thenReturn(facets);
+
+        mockMvc.perform(get("/products/filter")
+                        .param("q", "rose")
+                        .param("categoryIds", "1", "2")
+                        .param("minPrice", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categories[0].name").value("Roses"))
+                .andExpect(jsonPath("$.categories[0].count").value(4))
+                .andExpect(jsonPath("$.priceBuckets[0].to").value(25.0));
+    }
+
+    @Test
+    void filterProducts_withInvertedPriceRange_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/products/filter")
+                        .param("minPrice", "50")
+                        .param("maxPrice", "10"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).filter(any());
+    }
+
+    @Test
+    void scrollProducts_shouldReturnContentAndNextCursor() throws Exception {
+        ProductDto productDto = new ProductDto();
+        productDto.setId(1);
+        productDto.setName("rose");
+
+        when(productService.scroll(null, 20))
+                .thenReturn(new CursorPage<>(List.of(productDto), "cm9zZQox", true));
+
+        mockMvc.perform(get("/products/scroll"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("rose"))
+                .andExpect(jsonPath("$.nextCursor").value("cm9zZQox"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void scrollProducts_shouldReturnBadRequest_whenCursorIsInvalid() throws Exception {
+        when(productService.scroll("broken", 20))
+                .thenThrow(new InvalidCursorException("Invalid cursor"));
+
+        mockMvc.perform(get("/products/scroll").param("cursor", "broken"))
+                .andExpect(status().isBadRequest());
+    }
 
     @Test
     void testGetProduct() throws Exception {
@@ -393,32 +517,213 @@ class ProductEndpointTest {
                 .andExpect(status().isForbidden());
     }
 
+    @TempDir
+    Path imageDir;
+
+    private FileSystemResource imageResource(String imageName, byte[] content) throws Exception {
+        return new FileSystemResource(Files.write(imageDir.resolve(imageName), content));
+    }
+
     @Test
     void getImage_shouldReturnBytes_whenFileExists() throws Exception {
         byte[] expectedBytes = {1, 2, 3, 4};
 
-        when(productService.getImage("image.jpeg")).thenReturn(expectedBytes);
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", expectedBytes));
 
         mockMvc.perform(get("/products/img/{imageName}", "image.jpeg"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith("image/jpeg"))
+                .andExpect(header().longValue("Content-Length", expectedBytes.length))
                 .andExpect(content().bytes(expectedBytes));
     }
 
+    @Test
+    void getImage_shouldReturnCachingHeaders() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2}));
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void getImage_shouldUseContentHashAsETag_whenImageIsContentAddressed() throws Exception {
+        String hash = "a".repeat(64);
+        when(productService.getImage(hash + ".jpeg", null)).thenReturn(imageResource(hash + ".jpeg", new byte[]{1, 2}));
+        when(productService.getImage(hash + ".jpeg", ImageVariant.THUMB))
+                .thenReturn(imageResource("thumb_" + hash + ".jpeg", new byte[]{1}));
+
+        mockMvc.perform(get("/products/img/{imageName}", hash + ".jpeg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + hash + "\""));
+
+        mockMvc.perform(get("/products/img/{imageName}", hash + ".jpeg").param("variant", "thumb"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"thumb_" + hash + "\""));
+    }
+
+    @Test
+    void getImage_shouldReturnNotModified_whenETagMatches() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2}));
+
+        String eTag = mockMvc.perform(get("/products/img/{imageName}", "image.jpeg"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(productService, times(2)).getImage("image.jpeg", null);
+    }
+
+    @Test
+    void getImage_shouldReturnNotFound_whenCachedImageWasDeleted() throws Exception {
+        when(productService.getImage("image.jpeg", null))
+                .thenReturn(imageResource("image.jpeg", new byte[]{1, 2}))
+                .thenThrow(new ImageNotFoundException("Image not found"));
+
+        String eTag = mockMvc.perform(get("/products/img/{imageName}", "image.jpeg"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg").header("If-None-Match", eTag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getImage_shouldReturnNotModified_whenNotModifiedSince() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2}));
+
+        String lastModified = mockMvc.perform(get("/products/img/{imageName}", "image.jpeg"))
+                .andReturn()
+                .getResponse()
+                .getHeader("Last-Modified");
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg").header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getImage_shouldReturnVariant_whenVariantRequested() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2, 3}));
+        when(productService.getImage("image.jpeg", ImageVariant.THUMB))
+                .thenReturn(imageResource("thumb_image.jpeg", new byte[]{1}));
+
+        String originalETag = mockMvc.perform(get("/products/img/{imageName}", "image.jpeg"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg").param("variant", "thumb"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                .andExpect(header().string("ETag", not(originalETag)))
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().bytes(new byte[]{1}));
+    }
+
+    @Test
+    void getImage_shouldNotCacheOriginal_whenVariantNotGeneratedYet() throws Exception {
+        when(productService.getImage("image.jpeg", ImageVariant.CARD))
+                .thenReturn(imageResource("image.jpeg", new byte[]{1, 2, 3}));
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg").param("variant", "card"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void getImage_shouldReturnBadRequest_whenVariantUnknown() throws Exception {
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg").param("variant", "huge"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getImage_shouldAdvertiseByteRanges() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2}));
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"));
+    }
+
+    @Test
+    void getImage_shouldReturnPartialContent_whenRangeRequested() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2, 3, 4, 5}));
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg").header("Range", "bytes=1-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 1-3/5"))
+                .andExpect(header().string("Content-Length", "3"))
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().bytes(new byte[]{2, 3, 4}));
+    }
+
+    @Test
+    void getImage_shouldReturnRemainingBytes_whenResumingDownload() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2, 3, 4, 5}));
+
+        String eTag = mockMvc.perform(get("/products/img/{imageName}", "image.jpeg"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg")
+                        .header("Range", "bytes=3-")
+                        .header("If-Range", eTag))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 3-4/5"))
+                .andExpect(content().bytes(new byte[]{4, 5}));
+    }
+
+    @Test
+    void getImage_shouldReturnMultipartByteRanges_whenSeveralRangesRequested() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2, 3, 4, 5}));
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg").header("Range", "bytes=0-0,4-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Type", startsWith("multipart/byteranges")));
+    }
+
+    @Test
+    void getImage_shouldReturnFullContent_whenIfRangeDoesNotMatch() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2, 3, 4, 5}));
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg")
+                        .header("Range", "bytes=3-")
+                        .header("If-Range", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Range"))
+                .andExpect(header().string("Content-Length", "5"))
+                .andExpect(content().bytes(new byte[]{1, 2, 3, 4, 5}));
+    }
+
+    @Test
+    void getImage_shouldReturnRangeNotSatisfiable_whenRangeOutsideFile() throws Exception {
+        when(productService.getImage("image.jpeg", null)).thenReturn(imageResource("image.jpeg", new byte[]{1, 2, 3, 4, 5}));
+
+        mockMvc.perform(get("/products/img/{imageName}", "image.jpeg").header("Range", "bytes=10-20"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */5"));
+    }
+
     @Test
     void getImage_shouldReturnNotFound_whenFileDoesNotExist() throws Exception {
-        when(productService.getImage("rose.png")).thenReturn(null);
+        when(productService.getImage("rose.png", null)).thenThrow(new ImageNotFoundException("Image not found"));
 
         mockMvc.perform(get("/products/img/{imageName}", "rose.png"))
                 .andExpect(status().isNotFound())
-                .andExpect(result -> {
-                    assertTrue(result.getResolvedException() instanceof ResponseStatusException);
-                    ResponseStatusException ex = (ResponseStatusException) result.getResolvedException();
-                    assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
-                    assertTrue(ex.getReason().contains("Image not found: rose.png"));
-                });
-
-        verify(productService).getImage("rose.png");
+                .andExpect(jsonPath("$.message").value("Image not found"));
+
+        verify(productService).getImage("rose.png", null);
     }
 
     @Test
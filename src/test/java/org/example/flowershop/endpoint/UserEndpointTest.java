@@ -5,6 +5,7 @@ import org.example.flowershop.dto.SaveUserRequest;
 import org.example.flowershop.dto.UpdateUserRequest;
 import org.example.flowershop.dto.UserAuthResponse;
 import org.example.flowershop.dto.UserDto;
+import org.example.flowershop.exception.TooManyRequestsException;
 import org.example.flowershop.exception.UserNotFoundException;
 import org.example.flowershop.model.entity.User;
 import org.example.flowershop.model.enums.UserType;
@@ -35,6 +36,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -187,6 +189,23 @@ class UserEndpointTest {
                 .andExpect(jsonPath("$.token").value("jwt-token"));
     }
 
+    @Test
+    void login_whenHashingSaturated_shouldReturnTooManyRequests() throws Exception {
+        LoginUserRequest request = new LoginUserRequest();
+        request.setEmail("john@mail.com");
+        request.setPassword("123");
+
+        when(userService.login(any()))
+                .thenThrow(new TooManyRequestsException("Too many login attempts, please retry shortly"));
+
+        mockMvc.perform(post("/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.statusCode").value(429));
+    }
+
     @Test
     void update_whenAuthenticated_shouldReturnUpdatedUser() throws Exception {
         authenticate(testUser);
@@ -0,0 +1,182 @@
+package org.example.flowershop.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.example.flowershop.dto.OrderDto;
+import org.example.flowershop.mapper.CartItemMapper;
+import org.example.flowershop.mapper.CartItemMapperImpl;
+import org.example.flowershop.mapper.CategoryMapperImpl;
+import org.example.flowershop.mapper.FavoriteMapper;
+import org.example.flowershop.mapper.FavoriteMapperImpl;
+import org.example.flowershop.mapper.OrderMapper;
+import org.example.flowershop.mapper.OrderMapperImpl;
+import org.example.flowershop.mapper.ProductMapper;
+import org.example.flowershop.mapper.ProductMapperImpl;
+import org.example.flowershop.model.entity.CartItem;
+import org.example.flowershop.model.entity.Category;
+import org.example.flowershop.model.entity.Favorite;
+import org.example.flowershop.model.entity.Order;
+import org.example.flowershop.model.entity.Product;
+import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.Status;
+import org.example.flowershop.model.enums.UserType;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Checks that every list endpoint's finder loads its rows and everything the mapper reads from
+ * them in a single statement, however many distinct products and categories the rows point to.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderMapperImpl.class, CartItemMapperImpl.class, FavoriteMapperImpl.class,
+        ProductMapperImpl.class, CategoryMapperImpl.class})
+class FetchPlanTest {
+    private static final int ROWS = 10;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CartItemRepository cartItemRepository;
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private OrderMapper orderMapper;
+    @Autowired
+    private CartItemMapper cartItemMapper;
+    @Autowired
+    private FavoriteMapper favoriteMapper;
+    @Autowired
+    private ProductMapper productMapper;
+
+    private User user;
+    private Category firstCategory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .name("name")
+                .surname("surname")
+                .username("buyer")
+                .email("buyer@mail.com")
+                .password("password")
+                .userType(UserType.USER)
+                .build();
+        entityManager.persist(user);
+
+        for (int i = 0; i < ROWS; i++) {
+            Category category = Category.builder().name("category " + i).build();
+            entityManager.persist(category);
+            if (i == 0) {
+                firstCategory = category;
+            }
+            Product product = Product.builder()
+                    .name("product " + i)
+                    .description("description")
+                    .price(10 + i)
+                    .image("image.jpg")
+                    .category(i % 2 == 0 ? firstCategory : category)
+                    .user(user)
+                    .build();
+            entityManager.persist(product);
+            entityManager.persist(Order.builder()
+                    .user(user)
+                    .product(product)
+                    .price(product.getPrice())
+                    .status(Status.NEW)
+                    .address("address")
+                    .orderDate(LocalDateTime.now().minusMinutes(i))
+                    .quantity(1)
+                    .build());
+            entityManager.persist(CartItem.builder().user(user).product(product).build());
+            entityManager.persist(Favorite.builder().user(user).product(product).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void userOrders_shouldLoadProductsAndCategoriesInOneStatement() {
+        List<OrderDto> orders = orderRepository.findViewsByUserId(user.getId(), Sort.by("orderDate").descending())
+                .stream().map(orderMapper::toDto).toList();
+        orderRepository.findViewsByUserId(user.getId(), Sort.by("price")).forEach(orderMapper::toDto);
+        orderRepository.findViewsByUserId(user.getId(), Sort.by("status")).forEach(orderMapper::toDto);
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertNotNull(orders.getFirst().getProduct().getImageVariants());
+    }
+
+    @Test
+    void adminOrders_shouldLoadProductsAndCategoriesInOneStatement() {
+        orderRepository.findAllBy(PageRequest.of(0, ROWS)).map(orderMapper::toDto).getContent();
+        List<OrderDto> orders = orderMapper.toDtoList(orderRepository.findFirstOrderByOrderDateDescAndIdDesc(Limit.of(ROWS)));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertNotNull(orders.getFirst().getProduct().getImageVariants());
+    }
+
+    @Test
+    void cart_shouldLoadProductsInOneStatement() {
+        cartItemRepository.findViewsByUserId(user.getId(), Sort.by("productName")).forEach(cartItemMapper::toDto);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void favorites_shouldLoadProductsInOneStatement() {
+        favoriteRepository.findViewsByUserId(user.getId(), Sort.by("productPrice")).forEach(favoriteMapper::toDto);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void products_shouldLoadCategoriesInOneStatement() {
+        productRepository.findViewsBy(PageRequest.of(0, ROWS, Sort.by("name"))).map(productMapper::toDto).getContent();
+        productRepository.findFirstOrderByNameAndId(Limit.of(ROWS)).forEach(productMapper::toDto);
+        productRepository.findSliceByCategory(firstCategory, PageRequest.of(0, ROWS))
+                .map(productMapper::toDto).getContent();
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
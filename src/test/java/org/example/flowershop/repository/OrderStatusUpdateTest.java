@@ -0,0 +1,123 @@
+package org.example.flowershop.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.example.flowershop.model.entity.Category;
+import org.example.flowershop.model.entity.Order;
+import org.example.flowershop.model.entity.Product;
+import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.Status;
+import org.example.flowershop.model.enums.UserType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the order status updates against an embedded PostgreSQL, where {@code update ... returning}
+ * is real SQL rather than a mocked call.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderStatusUpdateTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Order due;
+    private Order recent;
+    private Order delivering;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .name("name")
+                .surname("surname")
+                .username("buyer")
+                .email("buyer@mail.com")
+                .password("password")
+                .userType(UserType.USER)
+                .build();
+        entityManager.persist(user);
+        Category category = Category.builder().name("category").build();
+        entityManager.persist(category);
+        Product product = Product.builder()
+                .name("product")
+                .description("description")
+                .price(10)
+                .image("image.jpg")
+                .category(category)
+                .user(user)
+                .build();
+        entityManager.persist(product);
+
+        due = order(user, product, Status.NEW, LocalDateTime.now().minusMinutes(15));
+        recent = order(user, product, Status.NEW, LocalDateTime.now());
+        delivering = order(user, product, Status.IN_DELIVERY, LocalDateTime.now().minusMinutes(15));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void updateReturningIds_shouldReturnExactlyTheMovedOrders() {
+        List<Long> moved = orderRepository.updateStatusByStatusAndOrderDateNotAfterReturningIds(
+                Status.NEW, Status.IN_DELIVERY, LocalDateTime.now().minusMinutes(10));
+        entityManager.clear();
+
+        assertEquals(List.of(due.getId()), moved);
+        assertEquals(Status.IN_DELIVERY, orderRepository.findById(due.getId()).orElseThrow().getStatus());
+        assertEquals(Status.NEW, orderRepository.findById(recent.getId()).orElseThrow().getStatus());
+        assertEquals(Status.IN_DELIVERY, orderRepository.findById(delivering.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateReturningIds_shouldSeePendingChanges() {
+        Order order = orderRepository.findById(recent.getId()).orElseThrow();
+        order.setOrderDate(LocalDateTime.now().minusMinutes(15));
+
+        List<Long> moved = orderRepository.updateStatusByStatusAndOrderDateNotAfterReturningIds(
+                Status.NEW, Status.IN_DELIVERY, LocalDateTime.now().minusMinutes(10));
+
+        assertEquals(2, moved.size());
+    }
+
+    private Order order(User user, Product product, Status status, LocalDateTime orderDate) {
+        Order order = Order.builder()
+                .user(user)
+                .product(product)
+                .price(product.getPrice())
+                .status(status)
+                .address("address")
+                .orderDate(orderDate)
+                .quantity(1)
+                .build();
+        entityManager.persist(order);
+        return order;
+    }
+
+    @TestConfiguration
+    static class EmbeddedPostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+            return embeddedPostgres.getPostgresDatabase();
+        }
+    }
+}
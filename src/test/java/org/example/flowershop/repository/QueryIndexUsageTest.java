@@ -0,0 +1,113 @@
+package org.example.flowershop.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs EXPLAIN for the SQL behind the repository finders against an embedded
+ * PostgreSQL migrated with the real changelog and loaded with realistic row counts.
+ */
+class QueryIndexUsageTest {
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:/db/changelog.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                insert into users (name, surname, email, password, username)
+                select 'name', 'surname', 'user' || g || '@mail.com', 'password', 'user' || g
+                from generate_series(1, 5000) g
+                """);
+        jdbcTemplate.execute("""
+                insert into categories (name)
+                select 'category ' || g from generate_series(1, 50) g
+                """);
+        jdbcTemplate.execute("""
+                insert into products (name, description, price, category_id, user_id, image_name)
+                select 'product ' || g, 'description', g % 500, g % 50 + 1, 1, 'image.jpg'
+                from generate_series(1, 20000) g
+                """);
+        jdbcTemplate.execute("""
+                insert into orders (user_id, price, status, address, order_date, product_id, quantity)
+                select g % 5000 + 1,
+                       g % 1000,
+                       case when g % 100 = 0 then 'NEW' when g % 100 = 1 then 'IN_DELIVERY' else 'DELIVERED' end,
+                       'address',
+                       now() - g * interval '1 minute',
+                       g % 20000 + 1,
+                       1
+                from generate_series(1, 200000) g
+                """);
+        jdbcTemplate.execute("""
+                insert into cart_items (user_id, product_id)
+                select g % 5000 + 1, g % 20000 + 1 from generate_series(1, 50000) g
+                """);
+        jdbcTemplate.execute("""
+                insert into favorites (user_id, product_id)
+                select g % 5000 + 1, g % 20000 + 1 from generate_series(1, 50000) g
+                """);
+        jdbcTemplate.execute("""
+                insert into mail_outbox (type, recipient, status, sent_at)
+                select 'WELCOME', 'user' || g || '@mail.com', case when g % 1000 = 0 then 'PENDING' else 'SENT' end, now()
+                from generate_series(1, 100000) g
+                """);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "OrderRepository.findViewsByUserId by orderDate | orders | select o.*, p.name, c.name from orders o join products p on p.id = o.product_id join categories c on c.id = p.category_id where o.user_id = 42 order by o.order_date desc",
+            "OrderRepository.findViewsByUserId by price | orders | select o.*, p.name, c.name from orders o join products p on p.id = o.product_id join categories c on c.id = p.category_id where o.user_id = 42 order by o.price",
+            "OrderRepository.findViewsByUserId by status | orders | select o.*, p.name, c.name from orders o join products p on p.id = o.product_id join categories c on c.id = p.category_id where o.user_id = 42 order by o.status",
+            "OrderRepository.existsByUserId | orders | select id from orders where user_id = 42 fetch first 1 rows only",
+            "OrderRepository.updateStatusByStatusAndOrderDateNotAfter | orders | update orders set status = 'IN_DELIVERY' where status = 'NEW' and order_date <= now() - interval '10 minutes'",
+            "CartItemRepository.findViewsByUserId | cart_items | select c.id, p.* from cart_items c join products p on p.id = c.product_id where c.user_id = 42 order by p.name",
+            "CartItemRepository.existsByUserId | cart_items | select id from cart_items where user_id = 42 fetch first 1 rows only",
+            "FavoriteRepository.findViewsByUserId | favorites | select f.id, p.* from favorites f join products p on p.id = f.product_id where f.user_id = 42 order by p.name",
+            "FavoriteRepository.existsByUserId | favorites | select id from favorites where user_id = 42 fetch first 1 rows only",
+            "ProductRepository.findSliceByCategory | products | select * from products where category_id = 7 offset 0 rows fetch first 21 rows only",
+            "ProductRepository.countByCategory | products | select count(id) from products where category_id = 7",
+            "ProductRepository.findByName | products | select * from products where name = 'product 4242'",
+            "ProductRepository.findFirstOrderByNameAndId | products | select * from products order by name, id limit 21",
+            "ProductRepository.findAfterOrderByNameAndId | products | select * from products where (name, id) > ('product 9000', 9000) order by name, id limit 21",
+            "ProductRepository.findAfterByCategoryOrderByNameAndId | products | select * from products where category_id = 7 and (name, id) > ('product 9000', 9000) order by name, id limit 21",
+            "OrderRepository.findFirstOrderByOrderDateDescAndIdDesc | orders | select * from orders order by order_date desc, id desc limit 21",
+            "OrderRepository.findBeforeOrderByOrderDateDescAndIdDesc | orders | select * from orders where (order_date, id) < (now() - interval '30 days', 45000) order by order_date desc, id desc limit 21",
+            "OutboxMailRepository.findDueForUpdate | mail_outbox | select * from mail_outbox where status = 'PENDING' and next_attempt_at <= now() order by next_attempt_at limit 50 for update skip locked"
+    })
+    void query_shouldNotFallBackToSequentialScan(String repositoryMethod, String table, String sql) {
+        List<String> plan = jdbcTemplate.queryForList("explain " + sql, String.class);
+
+        assertFalse(
+                plan.stream().anyMatch(line -> line.contains("Seq Scan on " + table)),
+                () -> repositoryMethod + " scans " + table + " sequentially:\n" + String.join("\n", plan)
+        );
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.flowershop.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.UserType;
+import org.example.flowershop.repository.UserRepository;
+import org.example.flowershop.util.JwtTokenUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtPrincipalResolverTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final JwtTokenUtil tokenUtil = new JwtTokenUtil();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void resolve_shouldBuildPrincipalFromClaims_onceAccountVerified() {
+        JwtPrincipalResolver resolver = resolver(true, Duration.ofMinutes(1));
+        when(userRepository.findByEmail("user@mail.com")).thenReturn(Optional.of(storedUser(UserType.USER)));
+
+        resolver.resolve(claims(UserType.USER));
+        UserDetails principal = resolver.resolve(claims(UserType.USER));
+        resolver.resolve(claims(UserType.USER));
+
+        assertEquals(1L, ((CurrentUser) principal).getUser().getId());
+        assertEquals("ROLE_USER", principal.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(1)).findByEmail("user@mail.com");
+    }
+
+    @Test
+    void resolve_shouldRecheckAgainstRepository_notTheUserDetailsCache() {
+        JwtPrincipalResolver resolver = resolver(true, Duration.ofMinutes(1));
+        when(userRepository.findByEmail("user@mail.com")).thenReturn(Optional.of(storedUser(UserType.USER)));
+
+        resolver.resolve(claims(UserType.USER));
+
+        verify(userDetailsService, never()).loadUserByUsername("user@mail.com");
+    }
+
+    @Test
+    void resolve_shouldUseStoredAccount_whenClaimsAreStale() {
+        JwtPrincipalResolver resolver = resolver(true, Duration.ofMinutes(1));
+        when(userRepository.findByEmail("user@mail.com")).thenReturn(Optional.of(storedUser(UserType.USER)));
+
+        UserDetails first = resolver.resolve(claims(UserType.ADMIN));
+        UserDetails second = resolver.resolve(claims(UserType.ADMIN));
+
+        assertEquals("ROLE_USER", first.getAuthorities().iterator().next().getAuthority());
+        assertEquals("ROLE_USER", second.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(2)).findByEmail("user@mail.com");
+    }
+
+    @Test
+    void resolve_shouldRecheckAccount_whenEvicted() {
+        JwtPrincipalResolver resolver = resolver(true, Duration.ofMinutes(1));
+        when(userRepository.findByEmail("user@mail.com"))
+                .thenReturn(Optional.of(storedUser(UserType.USER)))
+                .thenReturn(Optional.empty());
+
+        resolver.resolve(claims(UserType.USER));
+        resolver.evict("user@mail.com");
+
+        assertThrows(UsernameNotFoundException.class, () -> resolver.resolve(claims(UserType.USER)));
+    }
+
+    @Test
+    void resolve_shouldLoadFromDatabase_whenClaimsPrincipalDisabled() {
+        JwtPrincipalResolver resolver = resolver(false, Duration.ofMinutes(1));
+        when(userDetailsService.loadUserByUsername("user@mail.com")).thenReturn(new CurrentUser(storedUser(UserType.USER)));
+
+        resolver.resolve(claims(UserType.USER));
+        resolver.resolve(claims(UserType.USER));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("user@mail.com");
+    }
+
+    @Test
+    void resolve_shouldLoadFromDatabase_whenTokenHasNoUserClaims() {
+        JwtPrincipalResolver resolver = resolver(true, Duration.ofMinutes(1));
+        when(userDetailsService.loadUserByUsername("user@mail.com")).thenReturn(new CurrentUser(storedUser(UserType.USER)));
+        Claims legacyClaims = Jwts.claims().subject("user@mail.com").build();
+
+        resolver.resolve(legacyClaims);
+        resolver.resolve(legacyClaims);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("user@mail.com");
+    }
+
+    private JwtPrincipalResolver resolver(boolean enabled, Duration maxStaleness) {
+        return new JwtPrincipalResolver(userDetailsService, userRepository, tokenUtil, enabled, maxStaleness, 100);
+    }
+
+    private static Claims claims(UserType userType) {
+        return Jwts.claims()
+                .subject("user@mail.com")
+                .add("uid", 1L)
+                .add("username", "user")
+                .add("userType", userType.name())
+                .build();
+    }
+
+    private static User storedUser(UserType userType) {
+        return User.builder()
+                .id(1L)
+                .email("user@mail.com")
+                .username("user")
+                .password("encoded")
+                .userType(userType)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.flowershop.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.flowershop.event.UserAccountChangedEvent;
+import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.UserType;
+import org.example.flowershop.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserService userService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userDetailsService = new UserDetailsServiceImpl(userService, meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void loadUserByUsername_shouldServeRepeatedLookupsFromCache() {
+        when(userService.findByEmail("user@mail.com")).thenReturn(Optional.of(user()));
+
+        UserDetails first = userDetailsService.loadUserByUsername("user@mail.com");
+        UserDetails second = userDetailsService.loadUserByUsername("user@mail.com");
+
+        assertSame(first, second);
+        verify(userService, times(1)).findByEmail("user@mail.com");
+    }
+
+    @Test
+    void loadUserByUsername_shouldNotCacheUnknownEmail() {
+        when(userService.findByEmail("user@mail.com"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(user()));
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("user@mail.com"));
+
+        assertEquals("user@mail.com", userDetailsService.loadUserByUsername("user@mail.com").getUsername());
+    }
+
+    @Test
+    void onUserAccountChanged_shouldEvictAccount() {
+        when(userService.findByEmail("user@mail.com")).thenReturn(Optional.of(user()));
+        userDetailsService.loadUserByUsername("user@mail.com");
+
+        userDetailsService.onUserAccountChanged(new UserAccountChangedEvent(1L, Set.of("user@mail.com")));
+        userDetailsService.loadUserByUsername("user@mail.com");
+
+        verify(userService, times(2)).findByEmail("user@mail.com");
+    }
+
+    @Test
+    void loadUserByUsername_shouldRecordHitsAndMisses() {
+        when(userService.findByEmail("user@mail.com")).thenReturn(Optional.of(user()));
+
+        userDetailsService.loadUserByUsername("user@mail.com");
+        userDetailsService.loadUserByUsername("user@mail.com");
+        userDetailsService.loadUserByUsername("user@mail.com");
+
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "miss")
+                .functionCounter().count());
+        meterRegistry.get("cache.evictions").tag("cache", "userDetails").functionCounter();
+    }
+
+    private static User user() {
+        return User.builder()
+                .id(1L)
+                .email("user@mail.com")
+                .password("encoded")
+                .userType(UserType.USER)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.flowershop.service;
+
+import org.example.flowershop.model.enums.ImageVariant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageVariantGeneratorTest {
+
+    private final ImageVariantGenerator imageVariantGenerator = new ImageVariantGenerator(1, 10);
+
+    @TempDir
+    private Path uploadDir;
+
+    @AfterEach
+    void tearDown() {
+        imageVariantGenerator.shutdown();
+    }
+
+    @Test
+    void generate_shouldWriteDownscaledVariantsNextToOriginal() throws Exception {
+        Path original = writeImage("rose.jpg", "jpg", 3000, 1500, BufferedImage.TYPE_INT_RGB);
+
+        imageVariantGenerator.generate(original);
+
+        assertDimensions(uploadDir.resolve("thumb_rose.jpg"), 200, 100);
+        assertDimensions(uploadDir.resolve("card_rose.jpg"), 600, 300);
+        assertDimensions(uploadDir.resolve("detail_rose.jpg"), 1200, 600);
+    }
+
+    @Test
+    void generate_shouldKeepTransparencyForPng() throws Exception {
+        Path original = writeImage("tulip.png", "png", 400, 800, BufferedImage.TYPE_INT_ARGB);
+
+        imageVariantGenerator.generate(original);
+
+        BufferedImage thumb = ImageIO.read(uploadDir.resolve("thumb_tulip.png").toFile());
+        assertEquals(100, thumb.getWidth());
+        assertEquals(200, thumb.getHeight());
+        assertTrue(thumb.getColorModel().hasAlpha());
+    }
+
+    @Test
+    void generate_shouldNotUpscaleSmallImages() throws Exception {
+        Path original = writeImage("lily.png", "png", 300, 150, BufferedImage.TYPE_INT_RGB);
+
+        imageVariantGenerator.generate(original);
+
+        assertDimensions(uploadDir.resolve("thumb_lily.png"), 200, 100);
+        assertDimensions(uploadDir.resolve("card_lily.png"), 300, 150);
+        assertDimensions(uploadDir.resolve("detail_lily.png"), 300, 150);
+    }
+
+    @Test
+    void generate_shouldSkipFilesThatAreNotImages() throws Exception {
+        Path original = Files.writeString(uploadDir.resolve("notes.jpg"), "not an image");
+
+        imageVariantGenerator.generate(original);
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            assertFalse(Files.exists(uploadDir.resolve(variant.fileName("notes.jpg"))));
+        }
+        try (var files = Files.list(uploadDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    private Path writeImage(String name, String format, int width, int height, int type) throws Exception {
+        Path path = uploadDir.resolve(name);
+        ImageIO.write(new BufferedImage(width, height, type), format, path.toFile());
+        return path;
+    }
+
+    private static void assertDimensions(Path path, int width, int height) throws Exception {
+        BufferedImage image = ImageIO.read(path.toFile());
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.flowershop.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.example.flowershop.exception.MailSendingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MailBatchSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MailBatchSender mailBatchSender;
+
+    @AfterEach
+    void tearDown() {
+        mailBatchSender.shutdown();
+    }
+
+    @Test
+    void send_shouldDeliverFullBatchOverOneConnection() throws Exception {
+        JavaMailSenderImpl mailSender = mailSender(greenMail.getSmtp().getPort());
+        mailBatchSender = new MailBatchSender(mailSender, meterRegistry, 5, Duration.ofSeconds(10), 100, false);
+
+        List<CompletableFuture<Void>> results = IntStream.range(0, 5)
+                .mapToObj(i -> mailBatchSender.send(message(mailSender, "user" + i + "@mail.com")))
+                .toList();
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        DistributionSummary batchSizes = meterRegistry.get("mail.batch.size").summary();
+        assertEquals(1, batchSizes.count());
+        assertEquals(5, batchSizes.totalAmount());
+        assertEquals(5, meterRegistry.get("mail.batch.messages").tag("result", "sent").counter().count());
+    }
+
+    @Test
+    void send_shouldFlushPartialBatchAfterLinger() throws Exception {
+        JavaMailSenderImpl mailSender = mailSender(greenMail.getSmtp().getPort());
+        mailBatchSender = new MailBatchSender(mailSender, meterRegistry, 50, Duration.ofMillis(100), 100, false);
+
+        mailBatchSender.send(message(mailSender, "first@mail.com"));
+        mailBatchSender.send(message(mailSender, "second@mail.com")).get(5, TimeUnit.SECONDS);
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 2));
+        assertEquals(2, meterRegistry.get("mail.batch.size").summary().max());
+    }
+
+    @Test
+    void send_shouldDeliverFromVirtualThread() throws Exception {
+        JavaMailSenderImpl mailSender = mailSender(greenMail.getSmtp().getPort());
+        mailBatchSender = new MailBatchSender(mailSender, meterRegistry, 1, Duration.ZERO, 100, true);
+
+        mailBatchSender.send(message(mailSender, "user@mail.com")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void send_shouldFailEveryMessage_whenServerIsUnreachable() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        JavaMailSenderImpl mailSender = mailSender(closedPort);
+        mailBatchSender = new MailBatchSender(mailSender, meterRegistry, 2, Duration.ofSeconds(10), 100, false);
+
+        CompletableFuture<Void> first = mailBatchSender.send(message(mailSender, "first@mail.com"));
+        CompletableFuture<Void> second = mailBatchSender.send(message(mailSender, "second@mail.com"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(MailSendingException.class, ex.getCause());
+        assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, meterRegistry.get("mail.batch.messages").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void send_shouldReject_afterShutdown() {
+        JavaMailSenderImpl mailSender = mailSender(greenMail.getSmtp().getPort());
+        mailBatchSender = new MailBatchSender(mailSender, meterRegistry, 1, Duration.ZERO, 1, false);
+        mailBatchSender.shutdown();
+
+        CompletableFuture<Void> result = mailBatchSender.send(message(mailSender, "user@mail.com"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(MailSendingException.class, ex.getCause());
+    }
+
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        return mailSender;
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl mailSender, String to) {
+        try {
+            MimeMessage mimeMessage = mailSender.createMimeMessage();
+            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+            message.setFrom("shop@mail.com");
+            message.setTo(to);
+            message.setSubject("Test");
+            message.setText("Test");
+            return mimeMessage;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
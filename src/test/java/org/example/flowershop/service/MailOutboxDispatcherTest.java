@@ -0,0 +1,198 @@
+package org.example.flowershop.service;
+
+import org.example.flowershop.exception.MailSendingException;
+import org.example.flowershop.model.entity.OutboxMail;
+import org.example.flowershop.model.enums.MailStatus;
+import org.example.flowershop.model.enums.MailType;
+import org.example.flowershop.repository.OutboxMailRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailOutboxDispatcherTest {
+
+    private OutboxMailRepository outboxMailRepository;
+    private MailService mailService;
+    private MailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        outboxMailRepository = mock(OutboxMailRepository.class);
+        mailService = mock(MailService.class);
+        dispatcher = new MailOutboxDispatcher(outboxMailRepository, mailService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                1, 10, 3, Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(5), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void claim_shouldLeaseDueMails() {
+        OutboxMail mail = pendingMail(0);
+        when(outboxMailRepository.findDueForUpdate(any(), eq(10))).thenReturn(List.of(mail));
+
+        LocalDateTime before = LocalDateTime.now();
+        List<Long> claimed = dispatcher.claim(10);
+
+        assertEquals(List.of(1L), claimed);
+        assertTrue(mail.getNextAttemptAt().isAfter(before.plusMinutes(4)));
+    }
+
+    @Test
+    void dispatch_shouldSendClaimedMailsOnWorkerPool() {
+        OutboxMail mail = pendingMail(0);
+        when(outboxMailRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of(mail));
+        when(outboxMailRepository.findAllById(List.of(1L))).thenReturn(List.of(mail));
+        when(mailService.sendWelcomeMail("user@mail.com", "user")).thenReturn(CompletableFuture.completedFuture(null));
+
+        dispatcher.dispatch();
+
+        verify(mailService, timeout(5000)).sendWelcomeMail("user@mail.com", "user");
+        verify(outboxMailRepository, timeout(5000)).saveAll(List.of(mail));
+        assertEquals(MailStatus.SENT, mail.getStatus());
+    }
+
+    @Test
+    void deliver_shouldMarkSent() {
+        OutboxMail mail = pendingMail(1);
+        mail.setLastError("timeout");
+        when(outboxMailRepository.findAllById(List.of(1L))).thenReturn(List.of(mail));
+        when(mailService.sendWelcomeMail(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        dispatcher.deliver(List.of(1L), inFiveMinutes());
+
+        assertEquals(MailStatus.SENT, mail.getStatus());
+        assertNull(mail.getLastError());
+        verify(outboxMailRepository).saveAll(List.of(mail));
+    }
+
+    @Test
+    void deliver_shouldRescheduleWithBackoff_whenSendFails() {
+        OutboxMail mail = pendingMail(1);
+        when(outboxMailRepository.findAllById(List.of(1L))).thenReturn(List.of(mail));
+        when(mailService.sendWelcomeMail(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendingException("Failed to send welcome email", null)));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.deliver(List.of(1L), inFiveMinutes());
+
+        assertEquals(MailStatus.PENDING, mail.getStatus());
+        assertEquals(2, mail.getAttempts());
+        assertEquals("Failed to send welcome email", mail.getLastError());
+        assertTrue(mail.getNextAttemptAt().isAfter(before.plusSeconds(59)));
+        verify(outboxMailRepository).saveAll(List.of(mail));
+    }
+
+    @Test
+    void deliver_shouldMarkDead_afterLastAttempt() {
+        OutboxMail mail = pendingMail(2);
+        when(outboxMailRepository.findAllById(List.of(1L))).thenReturn(List.of(mail));
+        doThrow(new MailSendingException("Failed to send welcome email", null))
+                .when(mailService).sendWelcomeMail(any(), any());
+
+        dispatcher.deliver(List.of(1L), inFiveMinutes());
+
+        assertEquals(MailStatus.DEAD, mail.getStatus());
+        assertEquals(3, mail.getAttempts());
+    }
+
+    @Test
+    void deliver_shouldSkipMailNoLongerPending() {
+        OutboxMail mail = pendingMail(0);
+        mail.setStatus(MailStatus.SENT);
+        when(outboxMailRepository.findAllById(List.of(1L))).thenReturn(List.of(mail));
+
+        dispatcher.deliver(List.of(1L), inFiveMinutes());
+
+        verify(mailService, never()).sendWelcomeMail(any(), any());
+        verify(outboxMailRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void deliver_shouldQueueWholeClaimBeforeWaiting() {
+        OutboxMail first = pendingMail(0);
+        OutboxMail second = pendingMail(0);
+        second.setId(2L);
+        second.setRecipient("other@mail.com");
+        CompletableFuture<Void> firstResult = new CompletableFuture<>();
+        when(outboxMailRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(mailService.sendWelcomeMail("user@mail.com", "user")).thenReturn(firstResult);
+        when(mailService.sendWelcomeMail("other@mail.com", "user"))
+                .thenAnswer(invocation -> {
+                    firstResult.complete(null);
+                    return CompletableFuture.failedFuture(new MailSendingException("Failed to send email", null));
+                });
+
+        dispatcher.deliver(List.of(1L, 2L), inFiveMinutes());
+
+        assertEquals(MailStatus.SENT, first.getStatus());
+        assertEquals(MailStatus.PENDING, second.getStatus());
+        assertEquals(1, second.getAttempts());
+    }
+
+    @Test
+    void deliver_shouldLeaveSendsInFlightClaimed_atDeadline() {
+        OutboxMail first = pendingMail(0);
+        OutboxMail second = pendingMail(0);
+        second.setId(2L);
+        second.setRecipient("other@mail.com");
+        LocalDateTime leasedUntil = second.getNextAttemptAt();
+        when(outboxMailRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(mailService.sendWelcomeMail("user@mail.com", "user")).thenReturn(CompletableFuture.completedFuture(null));
+        when(mailService.sendWelcomeMail("other@mail.com", "user")).thenReturn(new CompletableFuture<>());
+
+        dispatcher.deliver(List.of(1L, 2L), System.nanoTime() + Duration.ofMillis(100).toNanos());
+
+        assertEquals(MailStatus.SENT, first.getStatus());
+        assertEquals(MailStatus.PENDING, second.getStatus());
+        assertEquals(0, second.getAttempts());
+        assertEquals(leasedUntil, second.getNextAttemptAt());
+        verify(outboxMailRepository).saveAll(List.of(first));
+    }
+
+    @Test
+    void backoff_shouldDoubleUpToMax() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofMinutes(1), dispatcher.backoff(5));
+    }
+
+    private static long inFiveMinutes() {
+        return System.nanoTime() + Duration.ofMinutes(5).toNanos();
+    }
+
+    private static OutboxMail pendingMail(int attempts) {
+        return OutboxMail.builder()
+                .id(1L)
+                .type(MailType.WELCOME)
+                .recipient("user@mail.com")
+                .recipientName("user")
+                .status(MailStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.flowershop.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.flowershop.config.MailConfig;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MailTemplateRendererTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TemplateEngine templateEngine = new MailConfig().emailTemplateEngine(true);
+
+    @Test
+    void preload_shouldParseAllMailTemplates() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, meterRegistry, "mail/");
+
+        assertDoesNotThrow(renderer::preload);
+    }
+
+    @Test
+    void preload_shouldAcceptTemplatesThatNeedVariables() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, meterRegistry, "mail-variables/");
+
+        assertDoesNotThrow(renderer::preload);
+    }
+
+    @Test
+    void preload_shouldFailFast_whenTemplateIsBroken() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, meterRegistry, "mail-broken/");
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, renderer::preload);
+
+        assertTrue(ex.getMessage().contains("mail-broken/broken.html"));
+    }
+
+    @Test
+    void render_shouldRecordRenderTimePerTemplate() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, meterRegistry, "mail/");
+        Context ctx = new Context();
+        ctx.setVariable("user", "rose");
+
+        String html = renderer.render("mail/welcome.html", ctx);
+        renderer.render("mail/welcome.html", ctx);
+
+        assertTrue(html.contains("rose"));
+        assertEquals(2, meterRegistry.get("mail.template.render")
+                .tag("template", "mail/welcome.html")
+                .timer()
+                .count());
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.flowershop.service;
+
+import org.example.flowershop.model.enums.Status;
+import org.example.flowershop.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderStatusSchedulerTest {
+
+    private OrderStatusScheduler orderStatusScheduler;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        orderStatusScheduler = new OrderStatusScheduler(orderRepository, false);
+    }
+
+    @Test
+    void updateOrderStatuses_shouldMoveDeliveredBeforeNew() {
+        when(orderRepository.updateStatusByStatusAndOrderDateNotAfter(any(), any(), any()))
+                .thenReturn(3);
+
+        orderStatusScheduler.updateOrderStatuses();
+
+        InOrder order = inOrder(orderRepository);
+        order.verify(orderRepository).updateStatusByStatusAndOrderDateNotAfter(
+                eq(Status.IN_DELIVERY), eq(Status.DELIVERED), any(LocalDateTime.class));
+        order.verify(orderRepository).updateStatusByStatusAndOrderDateNotAfter(
+                eq(Status.NEW), eq(Status.IN_DELIVERY), any(LocalDateTime.class));
+    }
+
+    @Test
+    void updateOrderStatuses_shouldUseCutoffPerTransition() {
+        ArgumentCaptor<LocalDateTime> deliveredCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> inDeliveryCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        orderStatusScheduler.updateOrderStatuses();
+
+        verify(orderRepository).updateStatusByStatusAndOrderDateNotAfter(
+                eq(Status.IN_DELIVERY), eq(Status.DELIVERED), deliveredCutoff.capture());
+        verify(orderRepository).updateStatusByStatusAndOrderDateNotAfter(
+                eq(Status.NEW), eq(Status.IN_DELIVERY), inDeliveryCutoff.capture());
+
+        assertEquals(Duration.ofMinutes(20),
+                Duration.between(deliveredCutoff.getValue(), inDeliveryCutoff.getValue()));
+    }
+
+    @Test
+    void updateOrderStatuses_shouldNotReturnOrderIds_whenTransitionLoggingDisabled() {
+        orderStatusScheduler.updateOrderStatuses();
+
+        verify(orderRepository, never()).updateStatusByStatusAndOrderDateNotAfterReturningIds(any(), any(), any());
+    }
+
+    @Test
+    void updateOrderStatuses_shouldReturnIdsFromTheUpdate_whenTransitionLoggingEnabled() {
+        orderStatusScheduler = new OrderStatusScheduler(orderRepository, true);
+        when(orderRepository.updateStatusByStatusAndOrderDateNotAfterReturningIds(eq(Status.NEW), any(), any()))
+                .thenReturn(List.of(1L, 2L));
+
+        orderStatusScheduler.updateOrderStatuses();
+
+        verify(orderRepository).updateStatusByStatusAndOrderDateNotAfterReturningIds(
+                eq(Status.IN_DELIVERY), eq(Status.DELIVERED), any(LocalDateTime.class));
+        verify(orderRepository).updateStatusByStatusAndOrderDateNotAfterReturningIds(
+                eq(Status.NEW), eq(Status.IN_DELIVERY), any(LocalDateTime.class));
+        verify(orderRepository, never()).updateStatusByStatusAndOrderDateNotAfter(any(), any(), any());
+    }
+}
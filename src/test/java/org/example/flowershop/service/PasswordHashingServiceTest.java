@@ -0,0 +1,108 @@
+package org.example.flowershop.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.flowershop.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_shouldDelegateToPasswordEncoder() {
+        passwordHashingService = new PasswordHashingService(new BCryptPasswordEncoder(4), new SimpleMeterRegistry(),
+                1, 1, Duration.ofSeconds(5));
+
+        String encoded = passwordHashingService.encode("password");
+
+        assertNotEquals("password", encoded);
+        assertTrue(passwordHashingService.matches("password", encoded));
+        assertFalse(passwordHashingService.matches("wrong", encoded));
+    }
+
+    @Test
+    void upgradeEncoding_shouldFlagLegacyAndWeakerHashes() {
+        BCryptPasswordEncoder target = new BCryptPasswordEncoder(5);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", target));
+        encoder.setDefaultPasswordEncoderForMatches(target);
+        passwordHashingService = new PasswordHashingService(encoder, new SimpleMeterRegistry(),
+                1, 1, Duration.ofSeconds(5));
+
+        String legacy = new BCryptPasswordEncoder(4).encode("password");
+        String weaker = "{bcrypt}" + legacy;
+        String current = passwordHashingService.encode("password");
+
+        assertTrue(passwordHashingService.matches("password", legacy));
+        assertTrue(passwordHashingService.upgradeEncoding(legacy));
+        assertTrue(passwordHashingService.upgradeEncoding(weaker));
+        assertFalse(passwordHashingService.upgradeEncoding(current));
+    }
+
+    @Test
+    void matches_shouldRejectWithTooManyRequests_whenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = mock(PasswordEncoder.class);
+        when(blockingEncoder.matches(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        passwordHashingService = new PasswordHashingService(blockingEncoder, new SimpleMeterRegistry(),
+                1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("a", "b"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordHashingService.matches("a", "b"));
+        waitForQueuedTask();
+
+        assertThrows(TooManyRequestsException.class, () -> passwordHashingService.matches("a", "b"));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_shouldRejectWithTooManyRequests_whenHashingTimesOut() {
+        PasswordEncoder slowEncoder = mock(PasswordEncoder.class);
+        when(slowEncoder.matches(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return true;
+        });
+        passwordHashingService = new PasswordHashingService(slowEncoder, new SimpleMeterRegistry(),
+                1, 1, Duration.ofMillis(50));
+
+        assertThrows(TooManyRequestsException.class, () -> passwordHashingService.matches("a", "b"));
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (passwordHashingService.queuedTasks() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.flowershop.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.flowershop.dto.CategoryDto;
+import org.example.flowershop.dto.CategoryFacetDto;
+import org.example.flowershop.dto.FacetedProductsDto;
+import org.example.flowershop.dto.PriceBucketDto;
+import org.example.flowershop.dto.ProductDto;
+import org.example.flowershop.dto.ProductFilterRequest;
+import org.example.flowershop.mapper.ProductMapper;
+import org.example.flowershop.model.entity.Product;
+import org.example.flowershop.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductMapper productMapper = mock(ProductMapper.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        index = new ProductSearchIndex(productRepository, productMapper, transactionTemplate, meterRegistry, 2,
+                new double[]{0, 25, 50});
+
+        index.index(product(1, "White Rose", "Long stem rose", "Roses"));
+        index.index(product(2, "Red Tulip", "Spring tulip from Holland", "Seasonal"));
+        index.index(product(3, "Wedding bouquet", "White roses and peonies", "Bouquets"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void search_shouldRankNameMatchesAboveDescriptionMatches() {
+        List<ProductDto> result = index.search("white", 10);
+
+        assertEquals(List.of(1L, 3L), ids(result));
+    }
+
+    @Test
+    void search_shouldRequireEveryTerm() {
+        assertEquals(List.of(3L), ids(index.search("white peonies", 10)));
+        assertTrue(index.search("white tulip", 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldMatchPrefixesAndCategoryNames() {
+        assertEquals(List.of(2L), ids(index.search("tul", 10)));
+        assertEquals(List.of(3L), ids(index.search("bouquets", 10)));
+    }
+
+    @Test
+    void search_shouldTolerateTyposAndAccents() {
+        assertEquals(List.of(2L), ids(index.search("tulpi", 10)));
+        assertEquals(List.of(3L), ids(index.search("weding bouqet", 10)));
+        assertEquals(List.of(3L), ids(index.search("péonies", 10)));
+    }
+
+    @Test
+    void search_shouldCapResultsAtLimit() {
+        assertEquals(1, index.search("rose", 1).size());
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    void remove_shouldDropProductFromResults() {
+        index.remove(1L);
+
+        assertEquals(List.of(3L), ids(index.search("white", 10)));
+    }
+
+    @Test
+    void index_shouldReplacePreviousVersionOfProduct() {
+        index.index(product(2, "Yellow Tulip", "Spring tulip", "Seasonal"));
+
+        assertTrue(index.search("red", 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("yellow", 10)));
+    }
+
+    @Test
+    void index_insideTransaction_shouldApplyOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.index(product(4, "Orchid", "Potted orchid", "Plants"));
+
+        assertTrue(index.search("orchid", 10).isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of(4L), ids(index.search("orchid", 10)));
+    }
+
+    @Test
+    void renameCategory_shouldReindexProductsOfThatCategory() {
+        index.renameCategory(100 + 2, "Spring flowers");
+
+        assertFalse(index.search("spring flowers", 10).isEmpty());
+        assertTrue(index.search("seasonal", 10).isEmpty());
+    }
+
+    @Test
+    void rebuild_shouldLoadCatalogInKeysetBatches() {
+        Product first = entity(10, "Alstroemeria");
+        Product second = entity(11, "Begonia");
+        Product third = entity(12, "Carnation");
+
+        when(productRepository.findFirstOrderByNameAndId(Limit.of(2))).thenReturn(List.of(first, second));
+        when(productRepository.findAfterOrderByNameAndId("Begonia", 11L, Limit.of(2))).thenReturn(List.of(third));
+        when(productMapper.toDto(first)).thenReturn(product(10, "Alstroemeria", null, "Lilies"));
+        when(productMapper.toDto(second)).thenReturn(product(11, "Begonia", null, "Plants"));
+        when(productMapper.toDto(third)).thenReturn(product(12, "Carnation", null, "Carnations"));
+
+        index.rebuild();
+
+        assertEquals(List.of(12L), ids(index.search("carnation", 10)));
+        assertTrue(index.search("white", 10).isEmpty());
+        assertEquals(3.0, meterRegistry.get("catalog.search.documents").gauge().value());
+    }
+
+    @Test
+    void filter_withoutCriteria_shouldServeMaintainedFacetCounts() {
+        index.index(priced(4, "Pink rose", 101, "Roses", 30));
+        index.index(priced(5, "Rose bouquet", 103, "Bouquets", 60));
+
+        FacetedProductsDto result = index.filter(new ProductFilterRequest());
+
+        assertEquals(5, result.getTotalElements());
+        assertEquals(List.of(4L, 2L, 5L, 3L, 1L), ids(result.getContent()));
+        assertEquals(List.of(
+                new CategoryFacetDto(103, "Bouquets", 2),
+                new CategoryFacetDto(101, "Roses", 2),
+                new CategoryFacetDto(102, "Seasonal", 1)
+        ), result.getCategories());
+        assertEquals(List.of(
+                new PriceBucketDto(0, 25.0, 3),
+                new PriceBucketDto(25, 50.0, 1),
+                new PriceBucketDto(50, null, 1)
+        ), result.getPriceBuckets());
+    }
+
+    @Test
+    void filter_shouldCountEachFacetUnderTheOtherFilters() {
+        index.index(priced(4, "Pink rose", 101, "Roses", 30));
+        index.index(priced(5, "Rose bouquet", 103, "Bouquets", 60));
+
+        FacetedProductsDto result = index.filter(ProductFilterRequest.builder()
+                .q("rose")
+                .categoryIds(List.of(101L))
+                .minPrice(20.0)
+                .build());
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals(List.of(4L), ids(result.getContent()));
+        assertEquals(List.of(
+                new CategoryFacetDto(103, "Bouquets", 1),
+                new CategoryFacetDto(101, "Roses", 1)
+        ), result.getCategories());
+        assertEquals(List.of(1L, 1L, 0L),
+                result.getPriceBuckets().stream().map(PriceBucketDto::getCount).toList());
+    }
+
+    @Test
+    void filter_shouldPageThroughMatches() {
+        FacetedProductsDto result = index.filter(ProductFilterRequest.builder().page(1).size(2).build());
+
+        assertEquals(3, result.getTotalElements());
+        assertEquals(List.of(1L), ids(result.getContent()));
+    }
+
+    @Test
+    void remove_shouldUpdateMaintainedFacetCounts() {
+        index.remove(2L);
+
+        FacetedProductsDto result = index.filter(new ProductFilterRequest());
+
+        assertEquals(List.of("Bouquets", "Roses"),
+                result.getCategories().stream().map(CategoryFacetDto::getName).toList());
+        assertEquals(2, result.getPriceBuckets().getFirst().getCount());
+    }
+
+    @Test
+    void withinEdits_shouldCountTranspositionAsOneEdit() {
+        assertTrue(ProductSearchIndex.withinEdits("tulpi", "tulip", 1));
+        assertFalse(ProductSearchIndex.withinEdits("tlpi", "tulip", 1));
+    }
+
+    private static ProductDto product(long id, String name, String description, String category) {
+        return new ProductDto(id, name, description, 10, null, null, new CategoryDto(100 + id, category));
+    }
+
+    private static ProductDto priced(long id, String name, long categoryId, String category, double price) {
+        return new ProductDto(id, name, null, price, null, null, new CategoryDto(categoryId, category));
+    }
+
+    private static Product entity(long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+
+    private static List<Long> ids(List<ProductDto> products) {
+        return products.stream().map(ProductDto::getId).toList();
+    }
+}
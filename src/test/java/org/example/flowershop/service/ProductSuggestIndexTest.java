@@ -0,0 +1,100 @@
+package org.example.flowershop.service;
+
+import org.example.flowershop.dto.SuggestionDto;
+import org.example.flowershop.model.enums.SuggestionType;
+import org.example.flowershop.repository.CategoryRepository;
+import org.example.flowershop.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSuggestIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findAllNames()).thenReturn(List.of("White rose", "Rose bouquet", "Red tulip"));
+        when(categoryRepository.findAllNames()).thenReturn(List.of("Roses", "Tulips"));
+        index = new ProductSuggestIndex(productRepository, categoryRepository, false);
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void suggest_shouldMatchAnyWordStartIgnoringCase() {
+        List<SuggestionDto> suggestions = index.suggest("RO", 10);
+
+        assertEquals(List.of(
+                new SuggestionDto("White rose", SuggestionType.PRODUCT),
+                new SuggestionDto("Rose bouquet", SuggestionType.PRODUCT),
+                new SuggestionDto("Roses", SuggestionType.CATEGORY)
+        ), suggestions);
+    }
+
+    @Test
+    void suggest_shouldRespectLimitAndIgnoreBlankPrefix() {
+        assertEquals(1, index.suggest("ro", 1).size());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+        assertTrue(index.suggest("orchid", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_shouldMatchMultiWordPrefix() {
+        assertEquals(List.of(new SuggestionDto("White rose", SuggestionType.PRODUCT)),
+                index.suggest("white r", 10));
+    }
+
+    @Test
+    void requestRebuild_shouldReloadNamesInBackground() {
+        when(productRepository.findAllNames()).thenReturn(List.of("Orchid"));
+
+        index.requestRebuild();
+        // Shutdown lets the queued rebuild finish first
+        index.shutdown();
+
+        verify(productRepository, times(2)).findAllNames();
+        assertEquals(List.of(new SuggestionDto("Orchid", SuggestionType.PRODUCT)), index.suggest("orc", 10));
+    }
+
+    @Test
+    void requestRebuild_insideTransaction_shouldWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.requestRebuild();
+        verify(productRepository, times(1)).findAllNames();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(productRepository, timeout(1000).times(2)).findAllNames();
+    }
+
+    @Test
+    void rebuild_whenLoadFails_shouldKeepPreviousSuggestions() {
+        when(productRepository.findAllNames()).thenThrow(new IllegalStateException("database down"));
+
+        index.rebuild();
+
+        assertEquals(List.of(new SuggestionDto("Red tulip", SuggestionType.PRODUCT)), index.suggest("red", 10));
+    }
+}
@@ -11,6 +11,7 @@ import org.example.flowershop.model.entity.User;
 import org.example.flowershop.repository.CartItemRepository;
 import org.example.flowershop.repository.ProductRepository;
 import org.example.flowershop.repository.UserRepository;
+import org.example.flowershop.repository.projection.CartItemView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -29,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -60,46 +62,48 @@ class CartItemServiceImplTest {
     void getCartByUser_shouldReturnCartItems_sortedByProductName_default() {
         long userId = 1L;
 
-        CartItem item1 = new CartItem();
-        item1.setId(1L);
-        CartItem item2 = new CartItem();
-        item2.setId(2L);
+        CartItemView item1 = mock(CartItemView.class);
+        CartItemView item2 = mock(CartItemView.class);
+        CartDto dto1 = new CartDto(1L, 5L, "rose", "white rose", 100, "rose.png");
+        CartDto dto2 = new CartDto(2L, 6L, "tulip", "red tulip", 50, "tulip.png");
 
-        when(cartItemRepository.findAllByUserId(eq(userId), any(Sort.class)))
+        when(cartItemRepository.findViewsByUserId(eq(userId), any(Sort.class)))
                 .thenReturn(List.of(item1, item2));
+        when(cartItemMapper.toDto(item1)).thenReturn(dto1);
+        when(cartItemMapper.toDto(item2)).thenReturn(dto2);
 
         ArgumentCaptor<Sort> sortCaptor = ArgumentCaptor.forClass(Sort.class);
 
-        List<CartItem> result = cartItemServiceImpl.getCartByUser(userId, "invalid");
+        List<CartDto> result = cartItemServiceImpl.getCartByUser(userId, "invalid");
 
-        assertEquals(2, result.size());
+        assertEquals(List.of(dto1, dto2), result);
 
         verify(cartItemRepository)
-                .findAllByUserId(eq(userId), sortCaptor.capture());
+                .findViewsByUserId(eq(userId), sortCaptor.capture());
 
         Sort usedSort = sortCaptor.getValue();
         assertTrue(usedSort.isSorted());
-        assertEquals(Sort.by("product.name").ascending(), usedSort);
+        assertEquals(Sort.by("productName").ascending(), usedSort);
     }
 
     @Test
     void getCartByUser_shouldSortByPrice() {
         long userId = 1L;
 
-        when(cartItemRepository.findAllByUserId(eq(userId), any(Sort.class)))
+        when(cartItemRepository.findViewsByUserId(eq(userId), any(Sort.class)))
                 .thenReturn(List.of());
 
         cartItemServiceImpl.getCartByUser(userId, "price");
 
         ArgumentCaptor<Sort> sortCaptor = ArgumentCaptor.forClass(Sort.class);
 
-        verify(cartItemRepository).findAllByUserId(eq(userId), sortCaptor.capture());
+        verify(cartItemRepository).findViewsByUserId(eq(userId), sortCaptor.capture());
 
         Sort usedSort = sortCaptor.getValue();
 
         assertTrue(usedSort.isSorted());
         assertEquals(
-                Sort.by("product.price").ascending(),
+                Sort.by("productPrice").ascending(),
                 usedSort
         );
     }
@@ -109,14 +113,14 @@ class CartItemServiceImplTest {
     void getCartByUser_shouldSortByCreatedAt() {
         long userId = 1L;
 
-        when(cartItemRepository.findAllByUserId(eq(userId), any(Sort.class)))
+        when(cartItemRepository.findViewsByUserId(eq(userId), any(Sort.class)))
                 .thenReturn(List.of());
 
         cartItemServiceImpl.getCartByUser(userId, "createdAt");
 
-        verify(cartItemRepository).findAllByUserId(
+        verify(cartItemRepository).findViewsByUserId(
                 eq(userId),
-                eq(Sort.by("createdAt").descending())
+                eq(Sort.by("id").descending())
         );
     }
 
@@ -187,7 +191,7 @@ class CartItemServiceImplTest {
         assertEquals("Product not found", ex.getMessage());
 
         verify(cartItemRepository, never()).save(any());
-        verify(cartItemMapper, never()).toDto(any());
+        verify(cartItemMapper, never()).toDto(any(CartItem.class));
     }
 
     @Test
@@ -1,6 +1,7 @@
 package org.example.flowershop.service.impl;
 
 import org.example.flowershop.dto.CategoryDto;
+import org.example.flowershop.dto.ProductDto;
 import org.example.flowershop.dto.SaveCategoryRequest;
 import org.example.flowershop.exception.CategoryAlreadyExistsException;
 import org.example.flowershop.exception.CategoryHasProductsException;
@@ -9,24 +10,34 @@ import org.example.flowershop.mapper.CategoryMapper;
 import org.example.flowershop.model.entity.Category;
 import org.example.flowershop.model.entity.Product;
 import org.example.flowershop.repository.CategoryRepository;
+import org.example.flowershop.service.PageCountCache;
+import org.example.flowershop.service.ProductCatalogCache;
+import org.example.flowershop.service.ProductSearchIndex;
+import org.example.flowershop.service.ProductSuggestIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -41,6 +52,18 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Spy
+    private PageCountCache pageCountCache = new PageCountCache(100, Duration.ofMinutes(1));
+
+    @Spy
+    private ProductCatalogCache productCatalogCache = new ProductCatalogCache(100, 100, Duration.ofMinutes(1));
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -53,9 +76,9 @@ class CategoryServiceImplTest {
         Category c1 = new Category(1L, "A", List.of());
         Category c2 = new Category(2L, "B", List.of());
 
-        Page<Category> page = new PageImpl<>(List.of(c1, c2));
+        Slice<Category> slice = new SliceImpl<>(List.of(c1, c2), pageable, false);
 
-        when(categoryRepository.findAll(pageable)).thenReturn(page);
+        when(categoryRepository.findAllBy(pageable)).thenReturn(slice);
         when(categoryMapper.toDto(c1)).thenReturn(new CategoryDto(1L, "A"));
         when(categoryMapper.toDto(c2)).thenReturn(new CategoryDto(2L, "B"));
 
@@ -64,6 +87,47 @@ class CategoryServiceImplTest {
         assertEquals(2, result.getContent().size());
         assertEquals("A", result.getContent().get(0).getName());
         assertEquals("B", result.getContent().get(1).getName());
+        assertEquals(2, result.getTotalElements());
+        verify(categoryRepository, never()).count();
+    }
+
+    @Test
+    void findAll_shouldServeRepeatedCountsFromCache_untilCategorySaved() {
+        Pageable pageable = PageRequest.of(0, 1);
+        Category category = new Category(1L, "A", List.of());
+        Slice<Category> slice = new SliceImpl<>(List.of(category), pageable, true);
+
+        when(categoryRepository.findAllBy(pageable)).thenReturn(slice);
+        when(categoryRepository.count()).thenReturn(5L);
+        when(categoryMapper.toDto(category)).thenReturn(new CategoryDto(1L, "A"));
+
+        assertEquals(5, categoryServiceImpl.findAll(pageable).getTotalElements());
+        assertEquals(5, categoryServiceImpl.findAll(pageable).getTotalElements());
+        verify(categoryRepository, times(1)).count();
+
+        SaveCategoryRequest request = new SaveCategoryRequest();
+        request.setName("New");
+        when(categoryRepository.findByName("New")).thenReturn(Optional.empty());
+        when(categoryMapper.toEntity(request)).thenReturn(category);
+        when(categoryRepository.save(category)).thenReturn(category);
+        categoryServiceImpl.save(request);
+
+        categoryServiceImpl.findAll(pageable);
+        verify(categoryRepository, times(2)).count();
+    }
+
+    @Test
+    void findSlice_shouldNotCount() {
+        Pageable pageable = PageRequest.of(0, 1);
+        Category category = new Category(1L, "A", List.of());
+
+        when(categoryRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(category), pageable, true));
+        when(categoryMapper.toDto(category)).thenReturn(new CategoryDto(1L, "A"));
+
+        Slice<CategoryDto> result = categoryServiceImpl.findSlice(pageable);
+
+        assertTrue(result.hasNext());
+        verify(categoryRepository, never()).count();
     }
 
 
@@ -179,6 +243,29 @@ class CategoryServiceImplTest {
 
         assertEquals("Updated", result.getName());
         verify(categoryRepository).save(existing);
+        verify(productSearchIndex).renameCategory(id, "Updated");
+        verify(productSuggestIndex).requestRebuild();
+        verify(productCatalogCache).evictAll();
+    }
+
+    @Test
+    void update_shouldDropCachedProductsAndPagesOfTheOldName() {
+        long id = 1L;
+        Category existing = new Category(id, "Old", List.of());
+        Pageable pageable = PageRequest.of(0, 10);
+        productCatalogCache.getById(5L, () -> new ProductDto());
+        productCatalogCache.getPage("Old", pageable, Page::empty);
+
+        when(categoryRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(categoryRepository.findByName("Updated")).thenReturn(Optional.empty());
+        when(categoryRepository.save(existing)).thenAnswer(inv -> inv.getArgument(0));
+
+        categoryServiceImpl.update(id, new SaveCategoryRequest("Updated"));
+
+        ProductDto reloaded = new ProductDto();
+        assertSame(reloaded, productCatalogCache.getById(5L, () -> reloaded));
+        Page<ProductDto> reloadedPage = Page.empty(pageable);
+        assertSame(reloadedPage, productCatalogCache.getPage("Old", pageable, () -> reloadedPage));
     }
 
     @Test
@@ -205,6 +292,7 @@ class CategoryServiceImplTest {
         categoryServiceImpl.deleteById(1L);
 
         verify(categoryRepository).deleteById(1L);
+        verify(productCatalogCache).evictAll();
     }
 
     @Test
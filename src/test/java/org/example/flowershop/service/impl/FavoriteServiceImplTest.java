@@ -11,6 +11,7 @@ import org.example.flowershop.model.entity.User;
 import org.example.flowershop.repository.FavoriteRepository;
 import org.example.flowershop.repository.ProductRepository;
 import org.example.flowershop.repository.UserRepository;
+import org.example.flowershop.repository.projection.FavoriteView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -26,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.AssertionsKt.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -144,8 +146,8 @@ class FavoriteServiceImplTest {
         when(userRepository.existsById(userId))
                 .thenReturn(true);
 
-        when(favoriteRepository.findAllByUserId(userId, Sort.by(sortBy).ascending()))
-                .thenReturn(List.of(new Favorite(), new Favorite()));
+        when(favoriteRepository.findViewsByUserId(userId, Sort.by("productName").ascending()))
+                .thenReturn(List.of(mock(FavoriteView.class), mock(FavoriteView.class)));
 
         List<FavoriteDto> result = favoriteServiceImpl.getFavorites(userId, sortBy);
 
@@ -0,0 +1,252 @@
+package org.example.flowershop.service.impl;
+
+import org.example.flowershop.exception.ImageNotFoundException;
+import org.example.flowershop.model.enums.ImageVariant;
+import org.example.flowershop.repository.ProductRepository;
+import org.example.flowershop.service.ImageVariantGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageStorageServiceImplTest {
+
+    @InjectMocks
+    private ImageStorageServiceImpl imageStorageService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ImageVariantGenerator imageVariantGenerator;
+
+    @TempDir
+    private Path uploadDir;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        imageStorageService.imageUploadPath = uploadDir.toString();
+        imageStorageService.gcMinAge = Duration.ofHours(1);
+    }
+
+    @Test
+    void store_shouldNameImageByContentHash() throws Exception {
+        byte[] content = {1, 2, 3};
+
+        String imageName = imageStorageService.store(new MockMultipartFile("image", "Rose.JPG", "image/jpeg", content));
+
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals(hash + ".jpg", imageName);
+        assertEquals(3, Files.size(uploadDir.resolve(imageName)));
+        verify(imageVariantGenerator).generateAsync(uploadDir.resolve(imageName));
+    }
+
+    @Test
+    void store_shouldDeduplicateIdenticalUploads() throws Exception {
+        String first = imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1, 2, 3}));
+        String second = imageStorageService.store(new MockMultipartFile("image", "copy.jpg", "image/jpeg", new byte[]{1, 2, 3}));
+        String other = imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{4, 5, 6}));
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        try (var files = Files.list(uploadDir)) {
+            assertEquals(2, files.filter(Files::isRegularFile).count());
+        }
+        verify(imageVariantGenerator).generateAsync(uploadDir.resolve(other));
+    }
+
+    @Test
+    void store_shouldRegenerateVariants_whenReusedImageIsMissingThem() {
+        String imageName = imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1}));
+
+        imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1}));
+
+        verify(imageVariantGenerator, times(2)).generateAsync(uploadDir.resolve(imageName));
+    }
+
+    @Test
+    void store_shouldNotRegenerateVariants_whenReusedImageHasThemAll() throws Exception {
+        String imageName = imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1}));
+        for (ImageVariant variant : ImageVariant.values()) {
+            Files.write(uploadDir.resolve(variant.fileName(imageName)), new byte[]{1});
+        }
+
+        imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1}));
+
+        verify(imageVariantGenerator, times(1)).generateAsync(uploadDir.resolve(imageName));
+    }
+
+    @Test
+    void store_shouldIgnoreClientFileName() {
+        String imageName = imageStorageService.store(
+                new MockMultipartFile("image", "rose.j/../pg", "application/octet-stream", new byte[]{1}));
+
+        assertFalse(imageName.contains("."));
+        assertTrue(Files.exists(uploadDir.resolve(imageName)));
+    }
+
+    @Test
+    void store_shouldNameSameContentAlike_whateverTheFileName() {
+        String lower = imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1, 2, 3}));
+        String upper = imageStorageService.store(new MockMultipartFile("image", "ROSE.JPEG", "IMAGE/JPEG", new byte[]{1, 2, 3}));
+
+        assertEquals(lower, upper);
+        assertTrue(lower.endsWith(".jpg"));
+    }
+
+    @Test
+    void store_shouldPreferDetectedContentType_overDeclaredOne() {
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 16, 'J', 'F', 'I', 'F', 0};
+
+        String imageName = imageStorageService.store(new MockMultipartFile("image", "rose.png", "image/png", jpeg));
+
+        assertTrue(imageName.endsWith(".jpg"));
+    }
+
+    @Test
+    void load_whenImageDoesNotExist_shouldThrowException() {
+        try (MockedStatic<Files> files = mockStatic(Files.class)) {
+            files.when(() -> Files.exists(any(Path.class))).thenReturn(false);
+
+            ImageNotFoundException ex = assertThrows(
+                    ImageNotFoundException.class,
+                    () -> imageStorageService.load("test.jpg", null)
+            );
+            assertEquals("Image not found", ex.getMessage());
+        }
+    }
+
+    @Test
+    void load_whenImageExists_shouldReturnStreamableResource() throws Exception {
+        Files.write(uploadDir.resolve("rose.jpg"), new byte[]{1, 2, 3});
+
+        Resource image = imageStorageService.load("rose.jpg", null);
+
+        assertEquals(3, image.contentLength());
+        try (var in = image.getInputStream()) {
+            assertEquals(3, in.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void load_whenPathTraversal_shouldThrowException() {
+        assertThrows(
+                ImageNotFoundException.class,
+                () -> imageStorageService.load("../secret.txt", null)
+        );
+        assertThrows(
+                ImageNotFoundException.class,
+                () -> imageStorageService.load("../secret.txt", ImageVariant.THUMB)
+        );
+    }
+
+    @Test
+    void load_whenVariantExists_shouldReturnVariant() throws Exception {
+        Files.write(uploadDir.resolve("rose.jpg"), new byte[]{1, 2, 3});
+        Files.write(uploadDir.resolve("thumb_rose.jpg"), new byte[]{1});
+
+        Resource image = imageStorageService.load("rose.jpg", ImageVariant.THUMB);
+
+        assertEquals("thumb_rose.jpg", image.getFilename());
+        assertEquals(1, image.contentLength());
+    }
+
+    @Test
+    void load_whenVariantNotGeneratedYet_shouldReturnOriginal() throws Exception {
+        Files.write(uploadDir.resolve("rose.jpg"), new byte[]{1, 2, 3});
+
+        Resource image = imageStorageService.load("rose.jpg", ImageVariant.CARD);
+
+        assertEquals("rose.jpg", image.getFilename());
+    }
+
+    @Test
+    void deleteUnreferenced_shouldDeleteOldUnreferencedImagesWithVariants() throws Exception {
+        Path referenced = writeOld("referenced.jpg");
+        Path referencedThumb = writeOld("thumb_referenced.jpg");
+        Path orphan = writeOld("orphan.jpg");
+        Path orphanThumb = writeOld("thumb_orphan.jpg");
+        Path orphanDetail = writeOld("detail_orphan.jpg");
+        when(productRepository.findAllImageNames()).thenReturn(Set.of("referenced.jpg"));
+
+        int deleted = imageStorageService.deleteUnreferenced();
+
+        assertEquals(3, deleted);
+        assertTrue(Files.exists(referenced));
+        assertTrue(Files.exists(referencedThumb));
+        assertFalse(Files.exists(orphan));
+        assertFalse(Files.exists(orphanThumb));
+        assertFalse(Files.exists(orphanDetail));
+    }
+
+    @Test
+    void deleteUnreferenced_shouldKeepRecentlyStoredImages() throws Exception {
+        String imageName = imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1}));
+        when(productRepository.findAllImageNames()).thenReturn(Set.of());
+
+        assertEquals(0, imageStorageService.deleteUnreferenced());
+        assertTrue(Files.exists(uploadDir.resolve(imageName)));
+    }
+
+    @Test
+    void store_shouldProtectReusedImageWithoutTouchingIt() throws Exception {
+        String imageName = imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1}));
+        Path imagePath = uploadDir.resolve(imageName);
+        FileTime stored = FileTime.from(Instant.now().minus(Duration.ofDays(1)));
+        Files.setLastModifiedTime(imagePath, stored);
+        when(productRepository.findAllImageNames()).thenReturn(Set.of());
+
+        imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1}));
+
+        assertEquals(stored, Files.getLastModifiedTime(imagePath));
+        assertEquals(0, imageStorageService.deleteUnreferenced());
+        assertTrue(Files.exists(imagePath));
+    }
+
+    @Test
+    void deleteUnreferenced_shouldDeleteReusedImage_onceMarkerExpires() throws Exception {
+        String imageName = imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1}));
+        Path imagePath = uploadDir.resolve(imageName);
+        Files.setLastModifiedTime(imagePath, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        imageStorageService.store(new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1}));
+        Path marker = uploadDir.resolve(".reused").resolve(imageName);
+        Files.setLastModifiedTime(marker, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        when(productRepository.findAllImageNames()).thenReturn(Set.of());
+
+        assertEquals(1, imageStorageService.deleteUnreferenced());
+        assertFalse(Files.exists(imagePath));
+        assertFalse(Files.exists(marker));
+    }
+
+    private Path writeOld(String fileName) throws Exception {
+        Path path = Files.write(uploadDir.resolve(fileName), new byte[]{1});
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        return path;
+    }
+}
@@ -2,7 +2,13 @@ package org.example.flowershop.service.impl;
 
 import jakarta.mail.internet.MimeMessage;
 import org.example.flowershop.exception.MailSendingException;
+import org.example.flowershop.model.entity.OutboxMail;
 import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.MailStatus;
+import org.example.flowershop.model.enums.MailType;
+import org.example.flowershop.repository.OutboxMailRepository;
+import org.example.flowershop.service.MailBatchSender;
+import org.example.flowershop.service.MailTemplateRenderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -10,19 +16,21 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.MailSendException;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.thymeleaf.TemplateEngine;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.thymeleaf.context.Context;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,68 +41,84 @@ class MailServiceImplTest {
     private JavaMailSender mailSender;
 
     @Mock
-    private TemplateEngine templateEngine;
+    private MailTemplateRenderer mailTemplateRenderer;
+
+    @Mock
+    private OutboxMailRepository outboxMailRepository;
+
+    @Mock
+    private MailBatchSender mailBatchSender;
 
     @InjectMocks
     private MailServiceImpl mailServiceImpl;
 
     @Test
-    void sendMail_shouldSendMailMessage() {
+    void sendMail_shouldQueueMailMessage() throws Exception {
         String to = "test@example.com";
         String subject = "Test";
         String text = "Test";
 
-        mailServiceImpl.sendMail(to, subject, text);
+        when(mailSender.createMimeMessage()).thenReturn(new JavaMailSenderImpl().createMimeMessage());
+        when(mailBatchSender.send(any(MimeMessage.class))).thenReturn(CompletableFuture.completedFuture(null));
 
-        ArgumentCaptor<SimpleMailMessage> captor =
-                ArgumentCaptor.forClass(SimpleMailMessage.class);
+        CompletableFuture<Void> result = mailServiceImpl.sendMail(to, subject, text);
 
-        verify(mailSender).send(captor.capture());
+        ArgumentCaptor<MimeMessage> captor = ArgumentCaptor.forClass(MimeMessage.class);
+        verify(mailBatchSender).send(captor.capture());
 
-        SimpleMailMessage mailMessage = captor.getValue();
-        assertEquals(to, mailMessage.getTo()[0]);
+        MimeMessage mailMessage = captor.getValue();
+        assertEquals(to, mailMessage.getAllRecipients()[0].toString());
         assertEquals(subject, mailMessage.getSubject());
-        assertEquals(text, mailMessage.getText());
+        assertEquals(text, mailMessage.getContent());
+        assertTrue(result.isDone());
     }
 
     @Test
-    void sendWelcomeMail_shouldSendWelcomeMessage() {
+    void enqueueWelcomeMail_shouldStorePendingOutboxMail() {
         User user = new User();
         user.setUsername("user");
         user.setEmail("user@example.com");
 
-        MimeMessage mimeMessage = mock(MimeMessage.class);
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        when(templateEngine.process(eq("mail/welcome.html"), any(Context.class)))
-                .thenReturn("<html>Welcome, user</html>");
+        mailServiceImpl.enqueueWelcomeMail(user);
 
-        mailServiceImpl.sendWelcomeMail(user);
+        ArgumentCaptor<OutboxMail> captor = ArgumentCaptor.forClass(OutboxMail.class);
+        verify(outboxMailRepository).save(captor.capture());
 
-        verify(mailSender).send(mimeMessage);
+        OutboxMail mail = captor.getValue();
+        assertEquals(MailType.WELCOME, mail.getType());
+        assertEquals(MailStatus.PENDING, mail.getStatus());
+        assertEquals("user@example.com", mail.getRecipient());
+        assertEquals("user", mail.getRecipientName());
+        assertNotNull(mail.getNextAttemptAt());
+        verify(mailSender, never()).send(any(MimeMessage.class));
     }
 
     @Test
-    void sendWelcomeMail_shouldThrowMailSendingException_whenMailSenderFails() {
-        User user = new User();
-        user.setUsername("user");
-        user.setEmail("user@example.com");
+    void sendWelcomeMail_shouldQueueWelcomeMessage() {
+        MimeMessage mimeMessage = new JavaMailSenderImpl().createMimeMessage();
+        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+        when(mailTemplateRenderer.render(eq("mail/welcome.html"), any(Context.class)))
+                .thenReturn("<html>Welcome, user</html>");
+        when(mailBatchSender.send(mimeMessage)).thenReturn(CompletableFuture.completedFuture(null));
 
-        when(templateEngine.process(anyString(), any(Context.class)))
-                .thenReturn("Welcome");
+        mailServiceImpl.sendWelcomeMail("user@example.com", "user");
 
-        MimeMessage mimeMessage = mock(MimeMessage.class);
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+        verify(mailBatchSender).send(mimeMessage);
+        verify(mailSender, never()).send(any(MimeMessage.class));
+    }
 
-        doThrow(new MailSendException("Mail server error"))
-                .when(mailSender)
-                .send(any(MimeMessage.class));
+    @Test
+    void sendWelcomeMail_shouldReturnFailedFuture_whenBatchFails() {
+        when(mailTemplateRenderer.render(anyString(), any(Context.class)))
+                .thenReturn("Welcome");
+        when(mailSender.createMimeMessage()).thenReturn(new JavaMailSenderImpl().createMimeMessage());
+        when(mailBatchSender.send(any(MimeMessage.class))).thenReturn(CompletableFuture.failedFuture(
+                new MailSendingException("Failed to send email", new MailSendException("Mail server error"))));
 
-        MailSendingException ex = assertThrows(
-                MailSendingException.class,
-                () -> mailServiceImpl.sendWelcomeMail(user)
-        );
+        CompletableFuture<Void> result = mailServiceImpl.sendWelcomeMail("user@example.com", "user");
 
-        assertEquals("Failed to send welcome email", ex.getMessage());
-        assertTrue(ex.getCause() instanceof MailSendException);
+        CompletionException ex = assertThrows(CompletionException.class, result::join);
+        assertTrue(ex.getCause() instanceof MailSendingException);
+        assertTrue(ex.getCause().getCause() instanceof MailSendException);
     }
-}
\ No newline at end of file
+}
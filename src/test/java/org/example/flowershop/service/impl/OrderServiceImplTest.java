@@ -1,7 +1,9 @@
 package org.example.flowershop.service.impl;
 
+import org.example.flowershop.dto.CursorPage;
 import org.example.flowershop.dto.OrderDto;
 import org.example.flowershop.dto.SaveOrderRequest;
+import org.example.flowershop.exception.InvalidCursorException;
 import org.example.flowershop.exception.OrderNotFoundException;
 import org.example.flowershop.exception.ProductNotFoundException;
 import org.example.flowershop.exception.UserNotFoundException;
@@ -14,26 +16,36 @@ import org.example.flowershop.model.enums.UserType;
 import org.example.flowershop.repository.OrderRepository;
 import org.example.flowershop.repository.ProductRepository;
 import org.example.flowershop.repository.UserRepository;
+import org.example.flowershop.repository.projection.OrderView;
+import org.example.flowershop.service.PageCountCache;
+import org.example.flowershop.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -55,6 +67,9 @@ class OrderServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private PageCountCache pageCountCache = new PageCountCache(100, Duration.ofMinutes(1));
+
     private User user;
     private User admin;
 
@@ -77,17 +92,57 @@ class OrderServiceImplTest {
         Order order = new Order();
         OrderDto dto = new OrderDto();
 
-        Page<Order> page = new PageImpl<>(List.of(order));
-        when(orderRepository.findAll(any(PageRequest.class))).thenReturn(page);
+        Slice<Order> slice = new SliceImpl<>(List.of(order), PageRequest.of(0, 10), false);
+        when(orderRepository.findAllBy(any(PageRequest.class))).thenReturn(slice);
         when(orderMapper.toDto(order)).thenReturn(dto);
 
         Page<OrderDto> result =
                 orderServiceImpl.findAll(PageRequest.of(0, 10));
 
         assertEquals(1, result.getTotalElements());
-        verify(orderRepository).findAll(any(PageRequest.class));
+        verify(orderRepository).findAllBy(any(PageRequest.class));
+        verify(orderRepository, never()).count();
+    }
+
+    @Test
+    void findSlice_shouldNotCount() {
+        Order order = new Order();
+        when(orderRepository.findAllBy(any(PageRequest.class)))
+                .thenReturn(new SliceImpl<>(List.of(order), PageRequest.of(0, 1), true));
+        when(orderMapper.toDto(order)).thenReturn(new OrderDto());
+
+        Slice<OrderDto> result = orderServiceImpl.findSlice(PageRequest.of(0, 1));
+
+        assertEquals(1, result.getNumberOfElements());
+        verify(orderRepository, never()).count();
+    }
+
+
+    @Test
+    void scrollAll_shouldSeekBeforeCursorNewestFirst() {
+        LocalDateTime orderDate = LocalDateTime.of(2026, 3, 1, 12, 30, 15, 123000);
+        Order order = new Order();
+        order.setId(7L);
+        order.setOrderDate(orderDate.minusHours(1));
+        String cursor = new KeysetCursor(orderDate.toString(), 8L).encode();
+
+        when(orderRepository.findBeforeOrderByOrderDateDescAndIdDesc(orderDate, 8L, Limit.of(2)))
+                .thenReturn(List.of(order));
+        when(orderMapper.toDto(order)).thenReturn(new OrderDto());
+
+        CursorPage<OrderDto> result = orderServiceImpl.scrollAll(cursor, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        verify(orderRepository, never()).findAllBy(any(PageRequest.class));
     }
 
+    @Test
+    void scrollAll_shouldRejectCursorWithInvalidDate() {
+        String cursor = new KeysetCursor("yesterday", 8L).encode();
+
+        assertThrows(InvalidCursorException.class, () -> orderServiceImpl.scrollAll(cursor, 20));
+    }
 
     @Test
     void findByIdForUser_adminAccess_shouldReturnOrder() {
@@ -189,10 +244,10 @@ class OrderServiceImplTest {
 
     @Test
     void getOrdersByUser_sortByPrice() {
-        when(orderRepository.findAllByUserIdOrderByPriceAsc(1L))
-                .thenReturn(List.of(new Order()));
-        when(orderMapper.toDtoList(any()))
-                .thenReturn(List.of(new OrderDto()));
+        when(orderRepository.findViewsByUserId(1L, Sort.by("price").ascending()))
+                .thenReturn(List.of(mock(OrderView.class)));
+        when(orderMapper.toDto(any(OrderView.class)))
+                .thenReturn(new OrderDto());
 
         List<OrderDto> result =
                 orderServiceImpl.getOrdersByUser(1L, "price");
@@ -200,6 +255,13 @@ class OrderServiceImplTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void getOrdersByUser_unknownSort_shouldSortByNewestFirst() {
+        orderServiceImpl.getOrdersByUser(1L, "address");
+
+        verify(orderRepository).findViewsByUserId(1L, Sort.by("orderDate").descending());
+    }
+
 
     @Test
     void update_userWrongOwner_shouldThrowAccessDenied() {
@@ -1,7 +1,10 @@
 package org.example.flowershop.service.impl;
 
 import org.example.flowershop.dto.CategoryDto;
+import org.example.flowershop.dto.CursorPage;
+import org.example.flowershop.dto.FacetedProductsDto;
 import org.example.flowershop.dto.ProductDto;
+import org.example.flowershop.dto.ProductFilterRequest;
 import org.example.flowershop.dto.SaveProductRequest;
 import org.example.flowershop.exception.CategoryNotFoundException;
 import org.example.flowershop.exception.ImageNotFoundException;
@@ -10,35 +13,52 @@ import org.example.flowershop.mapper.ProductMapper;
 import org.example.flowershop.model.entity.Category;
 import org.example.flowershop.model.entity.Product;
 import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.ImageVariant;
 import org.example.flowershop.model.enums.UserType;
 import org.example.flowershop.repository.CategoryRepository;
 import org.example.flowershop.repository.ProductRepository;
+import org.example.flowershop.repository.projection.ProductView;
 import org.example.flowershop.repository.UserRepository;
+import org.example.flowershop.service.ImageStorageService;
+import org.example.flowershop.service.PageCountCache;
+import org.example.flowershop.service.ProductCatalogCache;
+import org.example.flowershop.service.ProductSearchIndex;
+import org.example.flowershop.service.ProductSuggestIndex;
+import org.example.flowershop.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.access.AccessDeniedException;
 
-import java.lang.reflect.Field;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -60,12 +80,24 @@ class ProductServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ImageStorageService imageStorageService;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Spy
+    private ProductCatalogCache productCatalogCache = new ProductCatalogCache(100, 100, Duration.ofMinutes(1));
+
+    @Spy
+    private PageCountCache pageCountCache = new PageCountCache(100, Duration.ofMinutes(1));
+
     @BeforeEach
-    void setUp() throws Exception {
+    void setUp() {
         MockitoAnnotations.openMocks(this);
-        Field field = ProductServiceImpl.class.getDeclaredField("imageUploadPath");
-        field.setAccessible(true);
-        field.set(productServiceImpl, "/uploads");
     }
 
 
@@ -89,7 +121,7 @@ class ProductServiceImplTest {
 
         ProductDto dto = new ProductDto(
                 1L, "rose", "white rose", 10,
-                null, new CategoryDto(1L, "Flowers")
+                null, null, new CategoryDto(1L, "Flowers")
         );
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(admin));
@@ -103,6 +135,8 @@ class ProductServiceImplTest {
 
         assertEquals("rose", result.getName());
         verify(productRepository).save(product);
+        verify(productSearchIndex).index(dto);
+        verify(productSuggestIndex).requestRebuild();
     }
 
     @Test
@@ -140,7 +174,7 @@ class ProductServiceImplTest {
         when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
         when(productRepository.save(product)).thenReturn(product);
         when(productMapper.toDto(product)).thenReturn(
-                new ProductDto(1L, "lily", "white", 12, null,
+                new ProductDto(1L, "lily", "white", 12, null, null,
                         new CategoryDto(1L, "Flowers"))
         );
 
@@ -187,28 +221,189 @@ class ProductServiceImplTest {
         productServiceImpl.deleteById(1L, 1L);
 
         verify(productRepository).delete(product);
+        verify(productSearchIndex).remove(1L);
+        verify(productSuggestIndex).requestRebuild();
+    }
+
+    @Test
+    void search_shouldBeServedFromIndex() {
+        ProductDto rose = new ProductDto();
+        rose.setName("rose");
+        when(productSearchIndex.search("rose", 20)).thenReturn(List.of(rose));
+
+        List<ProductDto> result = productServiceImpl.search("rose", 20);
+
+        assertEquals(List.of(rose), result);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void filter_shouldBeServedFromIndex() {
+        ProductFilterRequest filter = ProductFilterRequest.builder().categoryIds(List.of(1L)).build();
+        FacetedProductsDto facets = FacetedProductsDto.builder().content(List.of()).build();
+        when(productSearchIndex.filter(filter)).thenReturn(facets);
+
+        assertSame(facets, productServiceImpl.filter(filter));
+        verifyNoInteractions(productRepository, categoryRepository);
     }
 
     @Test
     void findAll_shouldReturnPage() {
         Pageable pageable = PageRequest.of(0, 10);
 
-        Category category = new Category(1L, "Flowers", null);
-        Product product = new Product(1L, "rose", "desc", 10,
-                category, null, null, List.of(), List.of(), List.of());
-
-        Page<Product> page = new PageImpl<>(List.of(product));
+        ProductView product = mock(ProductView.class);
+        Slice<ProductView> slice = new SliceImpl<>(List.of(product), pageable, false);
 
-        when(productRepository.findAll(pageable)).thenReturn(page);
-        when(productMapper.toDto(any(Product.class)))
+        when(productRepository.findViewsBy(pageable)).thenReturn(slice);
+        when(productMapper.toDto(any(ProductView.class)))
                 .thenReturn(new ProductDto(
                         1L, "rose", "desc", 10,
-                        null, new CategoryDto(1L, "Flowers"))
+                        null, null, new CategoryDto(1L, "Flowers"))
                 );
 
         Page<ProductDto> result = productServiceImpl.findAll(pageable);
 
         assertEquals(1, result.getTotalElements());
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void findSlice_shouldNotCountAndCacheSeparatelyFromPages() {
+        Pageable pageable = PageRequest.of(0, 1);
+        ProductView product = mock(ProductView.class);
+
+        when(productRepository.findViewsBy(pageable)).thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+        when(productRepository.count()).thenReturn(3L);
+        when(productMapper.toDto(product)).thenReturn(new ProductDto());
+
+        Slice<ProductDto> slice = productServiceImpl.findSlice(pageable);
+        Page<ProductDto> page = productServiceImpl.findAll(pageable);
+
+        assertTrue(slice.hasNext());
+        assertEquals(3, page.getTotalElements());
+        verify(productRepository, times(2)).findViewsBy(pageable);
+        verify(productRepository, times(1)).count();
+    }
+
+    @Test
+    void scroll_shouldReturnNextCursor_whenMoreRowsFollow() {
+        Product rose = new Product();
+        rose.setId(1L);
+        rose.setName("rose");
+        Product tulip = new Product();
+        tulip.setId(2L);
+        tulip.setName("tulip");
+
+        when(productRepository.findFirstOrderByNameAndId(Limit.of(2))).thenReturn(List.of(rose, tulip));
+        when(productMapper.toDto(any(Product.class))).thenReturn(new ProductDto());
+
+        CursorPage<ProductDto> result = productServiceImpl.scroll(null, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(new KeysetCursor("rose", 1L), KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void scroll_shouldSeekPastCursor() {
+        String cursor = new KeysetCursor("rose", 1L).encode();
+
+        when(productRepository.findAfterOrderByNameAndId("rose", 1L, Limit.of(21))).thenReturn(List.of());
+
+        CursorPage<ProductDto> result = productServiceImpl.scroll(cursor, 20);
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void scrollByCategory_shouldThrow_whenCategoryMissing() {
+        when(categoryRepository.findByNameIgnoreCase("missing")).thenReturn(Optional.empty());
+
+        assertThrows(CategoryNotFoundException.class,
+                () -> productServiceImpl.scrollByCategory("missing", null, 20));
+    }
+
+    @Test
+    void findById_shouldServeRepeatedReadsFromCache() {
+        Product product = new Product();
+        product.setId(1L);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toDto(product)).thenReturn(new ProductDto());
+
+        productServiceImpl.findById(1L);
+        productServiceImpl.findById(1L);
+
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void update_shouldEvictCachedProduct() {
+        User admin = new User();
+        admin.setUserType(UserType.ADMIN);
+
+        Category category = new Category(1L, "Flowers", null);
+
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("rose");
+        product.setCategory(category);
+
+        SaveProductRequest request = new SaveProductRequest();
+        request.setName("lily");
+        request.setCategoryId(1L);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findByName(any())).thenReturn(Optional.empty());
+        when(productMapper.toDto(any(Product.class))).thenReturn(new ProductDto());
+        productServiceImpl.findById(1L);
+
+        when(userRepository.findById(2L)).thenReturn(Optional.of(admin));
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(productRepository.save(product)).thenReturn(product);
+        productServiceImpl.update(1L, request, null, 2L);
+
+        productServiceImpl.findById(1L);
+
+        verify(productCatalogCache).evictProduct(1L, "rose", "Flowers");
+        verify(productCatalogCache).evictProduct(1L, "lily", "Flowers");
+        verify(productRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void findByCategory_shouldServeRepeatedPagesFromCache_untilProductSaved() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Category category = new Category(1L, "Flowers", null);
+
+        User admin = new User();
+        admin.setUserType(UserType.ADMIN);
+
+        SaveProductRequest request = new SaveProductRequest();
+        request.setName("tulip");
+        request.setCategoryId(1L);
+
+        Product product = new Product();
+        product.setId(5L);
+        product.setName("tulip");
+
+        when(categoryRepository.findByNameIgnoreCase("flowers")).thenReturn(Optional.of(category));
+        when(productRepository.findSliceByCategory(category, pageable)).thenReturn(Page.empty());
+
+        productServiceImpl.findByCategory("flowers", pageable);
+        productServiceImpl.findByCategory("flowers", pageable);
+        verify(productRepository, times(1)).findSliceByCategory(category, pageable);
+
+        when(userRepository.findById(2L)).thenReturn(Optional.of(admin));
+        when(productRepository.findByName("tulip")).thenReturn(Optional.empty());
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(productMapper.toEntity(request)).thenReturn(product);
+        when(productRepository.save(product)).thenReturn(product);
+        productServiceImpl.save(request, 2L, null);
+
+        productServiceImpl.findByCategory("flowers", pageable);
+        verify(productRepository, times(2)).findSliceByCategory(category, pageable);
     }
 
     @Test
@@ -223,16 +418,59 @@ class ProductServiceImplTest {
 
 
     @Test
-    void getImage_whenImageDoesNotExist_shouldThrowException() {
-        try (MockedStatic<Files> files = mockStatic(Files.class)) {
-            files.when(() -> Files.exists(any(Path.class))).thenReturn(false);
-
-            ImageNotFoundException ex = assertThrows(
-                    ImageNotFoundException.class,
-                    () -> productServiceImpl.getImage("test.jpg")
-            );
-            assertEquals("Image not found", ex.getMessage());
-        }
+    void getImage_shouldLoadImageFromStorage() {
+        Resource resource = new ByteArrayResource(new byte[]{1, 2, 3});
+        when(imageStorageService.load("rose.jpg", null)).thenReturn(resource);
+
+        assertSame(resource, productServiceImpl.getImage("rose.jpg"));
+    }
+
+    @Test
+    void getImage_withVariant_shouldLoadVariantFromStorage() {
+        Resource resource = new ByteArrayResource(new byte[]{1});
+        when(imageStorageService.load("rose.jpg", ImageVariant.THUMB)).thenReturn(resource);
+
+        assertSame(resource, productServiceImpl.getImage("rose.jpg", ImageVariant.THUMB));
+    }
+
+    @Test
+    void getImage_whenImageDoesNotExist_shouldPropagateException() {
+        when(imageStorageService.load("test.jpg", null)).thenThrow(new ImageNotFoundException("Image not found"));
+
+        ImageNotFoundException ex = assertThrows(
+                ImageNotFoundException.class,
+                () -> productServiceImpl.getImage("test.jpg")
+        );
+        assertEquals("Image not found", ex.getMessage());
+    }
+
+    @Test
+    void save_withImage_shouldStoreImageAndReferenceItFromProduct() {
+        User admin = new User();
+        admin.setId(1L);
+        admin.setUserType(UserType.ADMIN);
+
+        SaveProductRequest request = new SaveProductRequest();
+        request.setName("rose");
+        request.setCategoryId(1L);
+
+        Product product = new Product();
+        product.setName("rose");
+
+        MockMultipartFile image = new MockMultipartFile("image", "rose.jpg", "image/jpeg", new byte[]{1, 2, 3});
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(admin));
+        when(productRepository.findByName("rose")).thenReturn(Optional.empty());
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(new Category(1L, "Flowers", null)));
+        when(productMapper.toEntity(request)).thenReturn(product);
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productMapper.toDto(product)).thenReturn(new ProductDto());
+        when(imageStorageService.store(image)).thenReturn("abc.jpg");
+
+        productServiceImpl.save(request, 1L, image);
+
+        assertEquals("abc.jpg", product.getImage());
+        verify(imageStorageService).store(image);
     }
 
     @Test
@@ -251,7 +489,7 @@ class ProductServiceImplTest {
         when(categoryRepository.findByNameIgnoreCase(categoryName))
                 .thenReturn(Optional.of(category));
 
-        when(productRepository.findAllByCategory(category, pageable))
+        when(productRepository.findSliceByCategory(category, pageable))
                 .thenReturn(productPage);
 
         when(productMapper.toDto(any(Product.class)))
@@ -264,7 +502,7 @@ class ProductServiceImplTest {
         assertEquals(productDto, result.getContent().get(0));
 
         verify(categoryRepository).findByNameIgnoreCase(categoryName);
-        verify(productRepository).findAllByCategory(category, pageable);
+        verify(productRepository).findSliceByCategory(category, pageable);
         verify(productMapper).toDto(any(Product.class));
     }
 
@@ -296,13 +534,13 @@ class ProductServiceImplTest {
         when(categoryRepository.findByNameIgnoreCase(categoryName))
                 .thenReturn(Optional.of(category));
 
-        when(productRepository.findAllByCategory(category, pageable))
+        when(productRepository.findSliceByCategory(category, pageable))
                 .thenReturn(emptyPage);
 
         Page<ProductDto> result = productServiceImpl.findByCategory(categoryName, pageable);
 
         assertTrue(result.isEmpty());
 
-        verify(productRepository).findAllByCategory(category, pageable);
+        verify(productRepository).findSliceByCategory(category, pageable);
     }
 }
\ No newline at end of file
@@ -5,7 +5,9 @@ import org.example.flowershop.dto.SaveUserRequest;
 import org.example.flowershop.dto.UpdateUserRequest;
 import org.example.flowershop.dto.UserAuthResponse;
 import org.example.flowershop.dto.UserDto;
+import org.example.flowershop.event.UserAccountChangedEvent;
 import org.example.flowershop.exception.EmailAlreadyExistsException;
+import org.example.flowershop.exception.TooManyRequestsException;
 import org.example.flowershop.exception.UserNotFoundException;
 import org.example.flowershop.exception.UsernameAlreadyExistsException;
 import org.example.flowershop.mapper.UserMapper;
@@ -16,25 +18,33 @@ import org.example.flowershop.repository.FavoriteRepository;
 import org.example.flowershop.repository.OrderRepository;
 import org.example.flowershop.repository.UserRepository;
 import org.example.flowershop.service.MailService;
+import org.example.flowershop.service.PasswordHashingService;
 import org.example.flowershop.util.JwtTokenUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -56,7 +66,10 @@ class UserServiceImplTest {
     private CartItemRepository cartItemRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     @Mock
     private UserMapper userMapper;
@@ -67,6 +80,9 @@ class UserServiceImplTest {
     @Mock
     private JwtTokenUtil jwtTokenUtil;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -85,17 +101,19 @@ class UserServiceImplTest {
 
         UserDto dto = new UserDto();
 
-        when(userRepository.findByEmail("user@mail.com")).thenReturn(Optional.empty());
-        when(userRepository.findByUsername("user")).thenReturn(Optional.empty());
+        when(userRepository.existsByEmail("user@mail.com")).thenReturn(false);
+        when(userRepository.existsByUsername("user")).thenReturn(false);
         when(userMapper.toEntity(request)).thenReturn(user);
-        when(passwordEncoder.encode("password")).thenReturn("encoded");
+        when(passwordHashingService.encode("password")).thenReturn("encoded");
         when(userRepository.save(user)).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(dto);
 
         UserDto result = userServiceImpl.registerUser(request);
 
         assertNotNull(result);
-        verify(mailService).sendWelcomeMail(user);
+        assertEquals("encoded", user.getPassword());
+        verify(transactionTemplate).execute(any());
+        verify(mailService).enqueueWelcomeMail(user);
     }
 
     @Test
@@ -105,13 +123,15 @@ class UserServiceImplTest {
         request.setUsername("user");
         request.setPassword("password123");
 
-        when(userRepository.findByEmail("user@mail.com"))
-                .thenReturn(Optional.of(new User()));
+        when(userRepository.existsByEmail("user@mail.com"))
+                .thenReturn(true);
 
         assertThrows(
                 EmailAlreadyExistsException.class,
                 () -> userServiceImpl.registerUser(request)
         );
+        verify(passwordHashingService, never()).encode(any());
+        verify(transactionTemplate, never()).execute(any());
     }
 
     @Test
@@ -121,14 +141,32 @@ class UserServiceImplTest {
         request.setUsername("user");
         request.setPassword("password123");
 
-        when(userRepository.findByEmail("user@mail.com")).thenReturn(Optional.empty());
-        when(userRepository.findByUsername("user"))
-                .thenReturn(Optional.of(new User()));
+        when(userRepository.existsByEmail("user@mail.com")).thenReturn(false);
+        when(userRepository.existsByUsername("user"))
+                .thenReturn(true);
 
         assertThrows(
                 UsernameAlreadyExistsException.class,
                 () -> userServiceImpl.registerUser(request)
         );
+        verify(passwordHashingService, never()).encode(any());
+    }
+
+    @Test
+    void registerUser_emailTakenDuringHash_shouldFailInsideTransaction() {
+        SaveUserRequest request = new SaveUserRequest();
+        request.setEmail("user@mail.com");
+        request.setUsername("user");
+        request.setPassword("password123");
+
+        when(userRepository.existsByEmail("user@mail.com")).thenReturn(false, true);
+        when(passwordHashingService.encode("password123")).thenReturn("encoded");
+
+        assertThrows(
+                EmailAlreadyExistsException.class,
+                () -> userServiceImpl.registerUser(request)
+        );
+        verify(userRepository, never()).save(any());
     }
 
     @Test
@@ -150,6 +188,24 @@ class UserServiceImplTest {
         assertEquals("newUsername", result.getUsername());
     }
 
+    @Test
+    void updateUser_shouldPublishAccountChangeForOldAndNewEmail() {
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setEmail("new@mail.com");
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("old@mail.com");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsByEmailAndIdNot("new@mail.com", 1L)).thenReturn(false);
+
+        userServiceImpl.updateUser(1L, request);
+
+        verify(eventPublisher).publishEvent(
+                new UserAccountChangedEvent(1L, Set.of("old@mail.com", "new@mail.com")));
+    }
+
     @Test
     void updateUser_userNotFound() {
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
@@ -174,9 +230,9 @@ class UserServiceImplTest {
 
         when(userRepository.findByEmail("user@mail.com"))
                 .thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("password", "encoded"))
+        when(passwordHashingService.matches("password", "encoded"))
                 .thenReturn(true);
-        when(jwtTokenUtil.generateToken("user@mail.com"))
+        when(jwtTokenUtil.generateToken(user))
                 .thenReturn("token");
 
         UserAuthResponse response = userServiceImpl.login(request);
@@ -185,6 +241,87 @@ class UserServiceImplTest {
         assertEquals(1L, response.getUserId());
     }
 
+    @Test
+    void login_shouldUpgradeWeakPasswordHash() {
+        LoginUserRequest request = new LoginUserRequest();
+        request.setEmail("user@mail.com");
+        request.setPassword("password");
+
+        User user = new User();
+        user.setId(1L);
+        user.setPassword("weak");
+
+        when(userRepository.findByEmail("user@mail.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password", "weak")).thenReturn(true);
+        when(passwordHashingService.upgradeEncoding("weak")).thenReturn(true);
+        when(passwordHashingService.encode("password")).thenReturn("strong");
+        when(userRepository.updatePassword(1L, "weak", "strong")).thenReturn(1);
+
+        userServiceImpl.login(request);
+
+        verify(userRepository).updatePassword(1L, "weak", "strong");
+        assertEquals("strong", user.getPassword());
+    }
+
+    @Test
+    void login_shouldNotRehash_whenHashIsCurrent() {
+        LoginUserRequest request = new LoginUserRequest();
+        request.setEmail("user@mail.com");
+        request.setPassword("password");
+
+        User user = new User();
+        user.setId(1L);
+        user.setPassword("encoded");
+
+        when(userRepository.findByEmail("user@mail.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password", "encoded")).thenReturn(true);
+
+        userServiceImpl.login(request);
+
+        verify(passwordHashingService, never()).encode(any());
+        verify(userRepository, never()).updatePassword(anyLong(), any(), any());
+    }
+
+    @Test
+    void login_shouldSucceedWithoutUpgrade_whenHashingSaturated() {
+        LoginUserRequest request = new LoginUserRequest();
+        request.setEmail("user@mail.com");
+        request.setPassword("password");
+
+        User user = new User();
+        user.setId(1L);
+        user.setPassword("weak");
+
+        when(userRepository.findByEmail("user@mail.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password", "weak")).thenReturn(true);
+        when(passwordHashingService.upgradeEncoding("weak")).thenReturn(true);
+        when(passwordHashingService.encode("password"))
+                .thenThrow(new TooManyRequestsException("Too many requests, please retry shortly"));
+        when(jwtTokenUtil.generateToken(user)).thenReturn("token");
+
+        UserAuthResponse response = userServiceImpl.login(request);
+
+        assertEquals("token", response.getToken());
+        verify(userRepository, never()).updatePassword(anyLong(), any(), any());
+    }
+
+    @Test
+    void login_whenHashingSaturated_shouldRejectWithTooManyRequests() {
+        LoginUserRequest request = new LoginUserRequest();
+        request.setEmail("user@mail.com");
+        request.setPassword("password");
+
+        User user = new User();
+        user.setPassword("encoded");
+
+        when(userRepository.findByEmail("user@mail.com")).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches("password", "encoded"))
+                .thenThrow(new TooManyRequestsException("Too many login attempts, please retry shortly"));
+
+        assertThrows(TooManyRequestsException.class, () -> userServiceImpl.login(request));
+        verify(jwtTokenUtil, never()).generateToken(any(User.class));
+    }
+
     @Test
     void login_wrongPassword() {
         LoginUserRequest request = new LoginUserRequest();
@@ -196,7 +333,7 @@ class UserServiceImplTest {
 
         when(userRepository.findByEmail("user@mail.com"))
                 .thenReturn(Optional.of(user));
-        when(passwordEncoder.matches("wrong", "encoded"))
+        when(passwordHashingService.matches("wrong", "encoded"))
                 .thenReturn(false);
 
         assertThrows(
@@ -236,6 +373,7 @@ class UserServiceImplTest {
         );
 
         verify(userRepository).delete(user);
+        verify(eventPublisher).publishEvent(any(UserAccountChangedEvent.class));
     }
 
     @Test
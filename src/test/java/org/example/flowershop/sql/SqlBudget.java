@@ -0,0 +1,29 @@
+package org.example.flowershop.sql;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a test whose body issues more SQL than allowed. Put it on a test class to give every
+ * test the same budget, or on a method to set or override it for that test.
+ * <p>
+ * The test context must provide a {@link SqlRecorder}, for example by importing
+ * {@link SqlRecordingDataSourceConfig}. Negative values leave a limit unchecked.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+    int maxStatements();
+
+    long maxRows() default -1;
+
+    long maxQueryMillis() default -1;
+}
@@ -0,0 +1,54 @@
+package org.example.flowershop.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Records SQL around the test method body only, after {@code @BeforeEach} seeding has run, and
+ * checks the report against the nearest {@link SqlBudget}.
+ */
+@Slf4j
+public class SqlBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        recorder(context).start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlReport report = recorder(context).stop();
+        log.info("SQL for {}: {}", context.getDisplayName(), report);
+
+        // A failing test already reports its own cause
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        SqlBudget budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), SqlBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), SqlBudget.class))
+                .orElseThrow();
+
+        if (budget.maxStatements() >= 0 && report.statementCount() > budget.maxStatements()) {
+            throw new AssertionFailedError("Expected at most " + budget.maxStatements() + " statements but "
+                    + report.statementCount() + " were executed:\n" + String.join("\n", report.statements()));
+        }
+        if (budget.maxRows() >= 0 && report.rows() > budget.maxRows()) {
+            throw new AssertionFailedError("Expected at most " + budget.maxRows() + " rows but "
+                    + report.rows() + " were fetched");
+        }
+        if (budget.maxQueryMillis() >= 0 && report.queryMillis() > budget.maxQueryMillis()) {
+            throw new AssertionFailedError("Expected at most " + budget.maxQueryMillis() + " ms in JDBC but "
+                    + report.queryMillis() + " ms were spent");
+        }
+    }
+
+    private static SqlRecorder recorder(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(SqlRecorder.class);
+    }
+}
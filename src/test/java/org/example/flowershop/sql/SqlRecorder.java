@@ -0,0 +1,72 @@
+package org.example.flowershop.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Records the statements, fetched rows and JDBC time of one thread between {@link #start()} and
+ * {@link #stop()}.
+ * <p>
+ * Only the thread that started recording is counted, so scheduled jobs and background index
+ * rebuilds running in the same context do not leak into a test's numbers. MockMvc serves the
+ * request on the test thread, which makes the report a per-request one.
+ */
+public class SqlRecorder implements QueryExecutionListener, MethodExecutionListener {
+
+    private volatile Thread recordingThread;
+    private final List<String> statements = new ArrayList<>();
+    private long rows;
+    private long queryMillis;
+
+    public void start() {
+        statements.clear();
+        rows = 0;
+        queryMillis = 0;
+        recordingThread = Thread.currentThread();
+    }
+
+    public SqlReport stop() {
+        recordingThread = null;
+        return new SqlReport(List.copyOf(statements), rows, queryMillis);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!isRecording()) {
+            return;
+        }
+        queryMillis += execInfo.getElapsedTime();
+        // A JDBC batch is one round trip and counts as one statement
+        statements.add(queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (isRecording()
+                && executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            rows++;
+        }
+    }
+
+    private boolean isRecording() {
+        return recordingThread == Thread.currentThread();
+    }
+}
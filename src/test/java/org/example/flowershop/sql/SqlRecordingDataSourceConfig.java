@@ -0,0 +1,37 @@
+package org.example.flowershop.sql;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * Replaces the application's datasource with an embedded PostgreSQL, migrated by Liquibase on
+ * startup, behind a proxy that feeds every statement and result set row to {@link SqlRecorder}.
+ */
+@TestConfiguration
+public class SqlRecordingDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedPostgres embeddedPostgres() throws IOException {
+        return EmbeddedPostgres.start();
+    }
+
+    @Bean
+    public SqlRecorder sqlRecorder() {
+        return new SqlRecorder();
+    }
+
+    @Bean
+    public DataSource dataSource(EmbeddedPostgres embeddedPostgres, SqlRecorder sqlRecorder) {
+        return ProxyDataSourceBuilder.create(embeddedPostgres.getPostgresDatabase())
+                .name("recorded")
+                .listener(sqlRecorder)
+                .methodListener(sqlRecorder)
+                .proxyResultSet()
+                .build();
+    }
+}
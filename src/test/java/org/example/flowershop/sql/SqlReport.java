@@ -0,0 +1,19 @@
+package org.example.flowershop.sql;
+
+import java.util.List;
+
+/**
+ * What {@link SqlRecorder} saw while recording: the SQL of each executed statement in order,
+ * the rows read from their result sets and the JDBC time spent, in milliseconds.
+ */
+public record SqlReport(List<String> statements, long rows, long queryMillis) {
+
+    public int statementCount() {
+        return statements.size();
+    }
+
+    @Override
+    public String toString() {
+        return statementCount() + " statements, " + rows + " rows, " + queryMillis + " ms";
+    }
+}
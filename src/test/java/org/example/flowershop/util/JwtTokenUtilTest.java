@@ -0,0 +1,101 @@
+package org.example.flowershop.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.example.flowershop.model.entity.User;
+import org.example.flowershop.model.enums.UserType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtTokenUtilTest {
+
+    private static final String SECRET =
+            "YXNkZmYkIyNzZFNEU0RBQVNERksjQEBkc2ZqZGZrZHNqQEAjZHNmZ2ZnZmdeXiYmWipeJSQkI2RzZHMkIyVzZDQ1MDk5KUkjJCg5V0ZTSUo=";
+
+    private JwtTokenUtil jwtTokenUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = newTokenUtil(600L);
+    }
+
+    @Test
+    void verifyToken_shouldReturnClaims_whenTokenValid() {
+        String token = jwtTokenUtil.generateToken(user());
+
+        Claims claims = jwtTokenUtil.verifyToken(token);
+
+        assertEquals("user@mail.com", claims.getSubject());
+        assertTrue(claims.getExpiration().after(claims.getIssuedAt()));
+    }
+
+    @Test
+    void verifyToken_shouldThrow_whenTokenTampered() {
+        String token = jwtTokenUtil.generateToken(user());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtTokenUtil.verifyToken(tampered));
+    }
+
+    @Test
+    void verifyToken_shouldThrow_whenTokenExpired() {
+        String token = newTokenUtil(-60L).generateToken(user());
+
+        assertThrows(ExpiredJwtException.class, () -> jwtTokenUtil.verifyToken(token));
+    }
+
+    @Test
+    void validateToken_shouldCheckSubject() {
+        String token = jwtTokenUtil.generateToken(user());
+
+        assertTrue(jwtTokenUtil.validateToken(token, "user@mail.com"));
+        assertFalse(jwtTokenUtil.validateToken(token, "other@mail.com"));
+    }
+
+    @Test
+    void getUserFromClaims_shouldRebuildUserFromTokenClaims() {
+        Claims claims = jwtTokenUtil.verifyToken(jwtTokenUtil.generateToken(user()));
+
+        User user = jwtTokenUtil.getUserFromClaims(claims).orElseThrow();
+
+        assertEquals(7L, user.getId());
+        assertEquals("user@mail.com", user.getEmail());
+        assertEquals("user", user.getUsername());
+        assertEquals(UserType.ADMIN, user.getUserType());
+        assertNull(user.getPassword());
+    }
+
+    @Test
+    void getUserFromClaims_shouldReturnEmpty_whenTokenHasNoUserClaims() {
+        Claims claims = Jwts.claims().subject("user@mail.com").build();
+
+        assertTrue(jwtTokenUtil.getUserFromClaims(claims).isEmpty());
+    }
+
+    private static User user() {
+        return User.builder()
+                .id(7L)
+                .email("user@mail.com")
+                .username("user")
+                .password("encoded")
+                .userType(UserType.ADMIN)
+                .build();
+    }
+
+    private static JwtTokenUtil newTokenUtil(long expirationSeconds) {
+        JwtTokenUtil tokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(tokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenUtil, "expiration", expirationSeconds);
+        tokenUtil.init();
+        return tokenUtil;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.flowershop.util;
+
+import org.example.flowershop.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+    @Test
+    void encode_shouldRoundTripKeyAndId() {
+        KeysetCursor cursor = new KeysetCursor("Red roses, 12 pcs", 42L);
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, KeysetCursor.decode(token));
+    }
+
+    @Test
+    void decode_shouldReturnNull_whenTokenIsMissing() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(""));
+    }
+
+    @Test
+    void decode_shouldThrowInvalidCursor_whenTokenIsMalformed() {
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}